@@ -1,16 +1,22 @@
 package com.bootcamp.microservicemeetup.config;
 
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfoHandlerMapping;
 import springfox.documentation.builders.RequestHandlerSelectors;
 import springfox.documentation.service.ApiInfo;
 import springfox.documentation.service.Contact;
 import springfox.documentation.service.VendorExtension;
 import springfox.documentation.spi.DocumentationType;
 import springfox.documentation.spring.web.plugins.Docket;
+import springfox.documentation.spring.web.plugins.WebMvcRequestHandlerProvider;
+import springfox.documentation.spring.web.readers.operation.HandlerMethodResolver;
 import springfox.documentation.swagger2.annotations.EnableSwagger2;
 
 import java.util.ArrayList;
+import java.util.stream.Collectors;
 
 import static springfox.documentation.builders.PathSelectors.regex;
 
@@ -67,4 +73,21 @@ public class SwaggerConfig {
     }
 
     Contact contato = new Contact("Isis Oliveira", "","isissoliveira@gmail.com");
+
+    // o springfox 2.9 não entende os handler mappings com PathPatternParser (como os endpoints do actuator)
+    // e quebra na inicialização; o provider dele passa a ser criado só com os mappings no estilo ant
+    @Bean
+    public static BeanFactoryPostProcessor springfoxHandlerMappingsFilter() {
+        return beanFactory -> {
+            for (String name : beanFactory.getBeanNamesForType(WebMvcRequestHandlerProvider.class, false, false)) {
+                AbstractBeanDefinition definition = (AbstractBeanDefinition) beanFactory.getBeanDefinition(name);
+                definition.setInstanceSupplier(() -> new WebMvcRequestHandlerProvider(
+                        beanFactory.getBean(HandlerMethodResolver.class),
+                        beanFactory.getBeanProvider(RequestMappingInfoHandlerMapping.class)
+                                .orderedStream()
+                                .filter(mapping -> mapping.getPatternParser() == null)
+                                .collect(Collectors.toList())));
+            }
+        };
+    }
 }
@@ -4,6 +4,8 @@ import com.auth0.jwt.exceptions.JWTDecodeException;
 import com.auth0.jwt.exceptions.TokenExpiredException;
 import com.bootcamp.microservicemeetup.controller.exceptions.ApiErrors;
 import com.bootcamp.microservicemeetup.exception.BusinessException;
+import com.bootcamp.microservicemeetup.exception.PasswordHashingBusyException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -42,5 +44,12 @@ public class ApplicationControllerAdvice {
         return new ApiErrors(ex);
     }
 
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    public ResponseEntity<ApiErrors> handlePasswordHashingBusyException(PasswordHashingBusyException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(new ApiErrors(ex));
+    }
+
 
 }
@@ -0,0 +1,109 @@
+package com.bootcamp.microservicemeetup.controller;
+
+import com.bootcamp.microservicemeetup.controller.dto.FieldSet;
+import com.bootcamp.microservicemeetup.controller.dto.MeetupDTO;
+import com.bootcamp.microservicemeetup.controller.dto.RegistrationResponseDTO;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Quando a requisição traz {@code fields=}, os campos não pedidos dos DTOs ficaram nulos;
+ * só nesse caso a resposta sai por uma cópia do ObjectMapper que omite os nulos desses DTOs,
+ * escrevendo direto no gerador do conversor. Sem o parâmetro o JSON continua o padrão, com os nulos.
+ */
+@RestControllerAdvice
+public class FieldSetResponseBodyAdvice implements ResponseBodyAdvice<Object> {
+
+    private static final ParameterNameDiscoverer PARAMETER_NAMES = new DefaultParameterNameDiscoverer();
+
+    private final Map<Method, Boolean> acceptsFields = new ConcurrentHashMap<>();
+
+    private final ObjectWriter fieldsWriter;
+
+    public FieldSetResponseBodyAdvice(ObjectMapper objectMapper) {
+        this.fieldsWriter = objectMapper.copy()
+                .addMixIn(MeetupDTO.class, NonNull.class)
+                .addMixIn(RegistrationResponseDTO.class, NonNull.class)
+                .writer();
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return MappingJackson2HttpMessageConverter.class.isAssignableFrom(converterType)
+                && returnType.getMethod() != null
+                && acceptsFields.computeIfAbsent(returnType.getMethod(), FieldSetResponseBodyAdvice::acceptsFields);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (body == null || !(request instanceof ServletServerHttpRequest)
+                || !FieldSet.requested(((ServletServerHttpRequest) request).getServletRequest().getParameter(FieldSet.PARAMETER))) {
+            return body;
+        }
+        return new FieldsBody(fieldsWriter, body);
+    }
+
+    private static boolean acceptsFields(Method method) {
+        for (int i = 0; i < method.getParameterCount(); i++) {
+            MethodParameter parameter = new MethodParameter(method, i);
+            parameter.initParameterNameDiscovery(PARAMETER_NAMES);
+            if (parameter.hasParameterAnnotation(RequestParam.class)
+                    && FieldSet.PARAMETER.equals(parameter.getParameterName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Entrega o corpo ao writer sem nulos, no mesmo gerador, sem montar árvore nem String no meio. */
+    private static final class FieldsBody implements JsonSerializable {
+
+        private final ObjectWriter writer;
+
+        private final Object body;
+
+        private FieldsBody(ObjectWriter writer, Object body) {
+            this.writer = writer;
+            this.body = body;
+        }
+
+        @Override
+        public void serialize(JsonGenerator generator, SerializerProvider serializers) throws IOException {
+            writer.writeValue(generator, body);
+        }
+
+        @Override
+        public void serializeWithType(JsonGenerator generator, SerializerProvider serializers,
+                                      TypeSerializer typeSerializer) throws IOException {
+            serialize(generator, serializers);
+        }
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private interface NonNull {
+    }
+}
@@ -0,0 +1,24 @@
+package com.bootcamp.microservicemeetup.controller.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BulkEnrollmentDTO {
+
+    /** Teto de ids por chamada: todos entram num só {@code in (...)} e numa só transação. */
+    public static final int MAX_REGISTRATIONS = 1000;
+
+    @NotEmpty
+    @Size(max = MAX_REGISTRATIONS)
+    private List<Integer> registrationIds;
+}
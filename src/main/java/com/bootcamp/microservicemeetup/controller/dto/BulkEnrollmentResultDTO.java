@@ -0,0 +1,21 @@
+package com.bootcamp.microservicemeetup.controller.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BulkEnrollmentResultDTO {
+
+    private Integer meetupId;
+
+    private long joined;
+
+    private List<EnrollmentResultDTO> results;
+}
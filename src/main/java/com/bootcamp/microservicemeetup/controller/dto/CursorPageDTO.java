@@ -0,0 +1,23 @@
+package com.bootcamp.microservicemeetup.controller.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CursorPageDTO<T> {
+
+    private List<T> content;
+
+    private int size;
+
+    private boolean hasNext;
+
+    private String next;
+}
@@ -0,0 +1,20 @@
+package com.bootcamp.microservicemeetup.controller.dto;
+
+import com.bootcamp.microservicemeetup.service.MembershipOutcome;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class EnrollmentResultDTO {
+
+    private Integer registrationId;
+
+    private MembershipOutcome outcome;
+
+    private String message;
+}
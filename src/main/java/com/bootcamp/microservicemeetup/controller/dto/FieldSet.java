@@ -0,0 +1,52 @@
+package com.bootcamp.microservicemeetup.controller.dto;
+
+import com.bootcamp.microservicemeetup.exception.BusinessException;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Campos pedidos no parâmetro {@code fields=} (separados por vírgula). Sem o parâmetro, todos.
+ * Os que ficam de fora não são mapeados nem, no caso de associações, carregados, e só nessas
+ * respostas os nulos são omitidos do JSON (ver {@code FieldSetResponseBodyAdvice}).
+ */
+public final class FieldSet {
+
+    public static final String PARAMETER = "fields";
+
+    public static final FieldSet ALL = new FieldSet(null);
+
+    private final Set<String> fields;
+
+    private FieldSet(Set<String> fields) {
+        this.fields = fields;
+    }
+
+    public static FieldSet of(String fields, Set<String> allowed) {
+        if (!requested(fields)) {
+            return ALL;
+        }
+        Set<String> requested = Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .collect(Collectors.toSet());
+        if (requested.isEmpty()) {
+            throw new BusinessException("Informe ao menos um campo em fields!");
+        }
+        for (String field : requested) {
+            if (!allowed.contains(field)) {
+                throw new BusinessException("Campo desconhecido em fields: " + field + "!");
+            }
+        }
+        return new FieldSet(requested);
+    }
+
+    public static boolean requested(String fields) {
+        return fields != null && !fields.isBlank();
+    }
+
+    public boolean has(String field) {
+        return fields == null || fields.contains(field);
+    }
+}
@@ -1,11 +1,14 @@
 package com.bootcamp.microservicemeetup.controller.dto;
 
+import com.bootcamp.microservicemeetup.model.entity.Meetup;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Data
 @Builder
@@ -13,11 +16,31 @@ import java.util.List;
 @AllArgsConstructor
 public class MeetupDTO {
 
+    public static final Set<String> FIELDS = Set.of("id", "event", "meetupDate", "capacity", "registrations");
+
     private Integer id;
 
     private String event;
 
     private String meetupDate;
 
+    private Integer capacity;
+
     private List<RegistrationFilterDTO> registrations;
+
+    public static MeetupDTO from(Meetup meetup) {
+        return from(meetup, FieldSet.ALL);
+    }
+
+    public static MeetupDTO from(Meetup meetup, FieldSet fields) {
+        List<RegistrationFilterDTO> registrations = !fields.has("registrations") || meetup.getRegistrations() == null ? null
+                : meetup.getRegistrations().stream().map(RegistrationFilterDTO::from).collect(Collectors.toList());
+
+        return new MeetupDTO(
+                fields.has("id") ? meetup.getId() : null,
+                fields.has("event") ? meetup.getEvent() : null,
+                fields.has("meetupDate") ? meetup.getMeetupDate() : null,
+                fields.has("capacity") ? meetup.getCapacity() : null,
+                registrations);
+    }
 }
@@ -2,6 +2,7 @@ package com.bootcamp.microservicemeetup.controller.dto;
 
 
 import com.bootcamp.microservicemeetup.model.entity.Registration;
+import com.bootcamp.microservicemeetup.model.entity.Meetup;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -22,4 +23,7 @@ public class MeetupFilterDTO {
     @NotEmpty
     private  String event;
 
+    public static MeetupFilterDTO from(Meetup meetup) {
+        return new MeetupFilterDTO(meetup.getId(), meetup.getMeetupDate(), meetup.getEvent());
+    }
 }
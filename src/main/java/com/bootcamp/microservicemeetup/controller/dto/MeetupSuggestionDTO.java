@@ -0,0 +1,17 @@
+package com.bootcamp.microservicemeetup.controller.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class MeetupSuggestionDTO {
+
+    private Integer id;
+
+    private String event;
+}
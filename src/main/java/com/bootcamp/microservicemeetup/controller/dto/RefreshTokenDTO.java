@@ -0,0 +1,18 @@
+package com.bootcamp.microservicemeetup.controller.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotBlank;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class RefreshTokenDTO {
+
+    @NotBlank
+    private String refreshToken;
+}
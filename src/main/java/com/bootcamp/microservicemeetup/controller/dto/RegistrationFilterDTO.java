@@ -1,5 +1,6 @@
 package com.bootcamp.microservicemeetup.controller.dto;
 
+import com.bootcamp.microservicemeetup.model.entity.Registration;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -23,4 +24,9 @@ public class RegistrationFilterDTO {
 
     @NotEmpty
     private String registration;
+
+    public static RegistrationFilterDTO from(Registration registration) {
+        return new RegistrationFilterDTO(registration.getId(), registration.getName(),
+                registration.getDateOfRegistration(), registration.getRegistration());
+    }
 }
@@ -1,5 +1,6 @@
 package com.bootcamp.microservicemeetup.controller.dto;
 
+import com.bootcamp.microservicemeetup.model.entity.Registration;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -7,6 +8,8 @@ import lombok.NoArgsConstructor;
 
 import javax.validation.constraints.NotEmpty;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Data
 @AllArgsConstructor
@@ -14,6 +17,8 @@ import java.util.List;
 @Builder
 public class RegistrationResponseDTO {
 
+    public static final Set<String> FIELDS = Set.of("id", "name", "dateOfRegistration", "registration", "meetups");
+
     private Integer id;
 
     @NotEmpty
@@ -26,4 +31,20 @@ public class RegistrationResponseDTO {
     private String registration;
 
     private List<MeetupFilterDTO> meetups;
+
+    public static RegistrationResponseDTO from(Registration registration) {
+        return from(registration, FieldSet.ALL);
+    }
+
+    public static RegistrationResponseDTO from(Registration registration, FieldSet fields) {
+        List<MeetupFilterDTO> meetups = !fields.has("meetups") || registration.getMeetups() == null ? null
+                : registration.getMeetups().stream().map(MeetupFilterDTO::from).collect(Collectors.toList());
+
+        return new RegistrationResponseDTO(
+                fields.has("id") ? registration.getId() : null,
+                fields.has("name") ? registration.getName() : null,
+                fields.has("dateOfRegistration") ? registration.getDateOfRegistration() : null,
+                fields.has("registration") ? registration.getRegistration() : null,
+                meetups);
+    }
 }
@@ -0,0 +1,19 @@
+package com.bootcamp.microservicemeetup.controller.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class TokenDTO {
+
+    private String accessToken;
+
+    private String refreshToken;
+
+    private long expiresIn;
+}
@@ -0,0 +1,23 @@
+package com.bootcamp.microservicemeetup.controller.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class TrackSubscriptionDTO {
+
+    @NotNull
+    private Integer registrationId;
+
+    @NotEmpty
+    private List<@NotNull Integer> meetupIds;
+}
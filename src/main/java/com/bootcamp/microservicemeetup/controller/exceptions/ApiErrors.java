@@ -3,6 +3,7 @@ package com.bootcamp.microservicemeetup.controller.exceptions;
 import com.auth0.jwt.exceptions.JWTDecodeException;
 import com.auth0.jwt.exceptions.TokenExpiredException;
 import com.bootcamp.microservicemeetup.exception.BusinessException;
+import com.bootcamp.microservicemeetup.exception.PasswordHashingBusyException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.server.ResponseStatusException;
@@ -33,6 +34,10 @@ public class ApiErrors {
         this.errors = List.of(e.getMessage());
     }
 
+    public ApiErrors(PasswordHashingBusyException e) {
+        this.errors = List.of(e.getMessage());
+    }
+
     public List<String> getErrors() {
         return errors;
     }
@@ -0,0 +1,41 @@
+package com.bootcamp.microservicemeetup.controller.resource;
+
+import com.bootcamp.microservicemeetup.controller.dto.RefreshTokenDTO;
+import com.bootcamp.microservicemeetup.controller.dto.TokenDTO;
+import com.bootcamp.microservicemeetup.security.JWTValidationFilter;
+import com.bootcamp.microservicemeetup.service.TokenService;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.validation.Valid;
+
+@RestController
+@RequestMapping("/api/auth")
+@Api(value = "API Rest Auth")
+public class AuthController {
+
+    private TokenService tokenService;
+
+    public AuthController(TokenService tokenService) {
+        this.tokenService = tokenService;
+    }
+
+    @PostMapping("refresh")
+    @ApiOperation(value = "Renew the access token using a refresh token")
+    public TokenDTO refresh(@RequestBody @Valid RefreshTokenDTO dto) {
+        return tokenService.refresh(dto.getRefreshToken());
+    }
+
+    @PostMapping("revoke")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @ApiOperation(value = "Revoke the access token used in this request")
+    public void revoke(@RequestHeader(JWTValidationFilter.HEADER_ATRIBUTO) String authorization) {
+        if (!authorization.startsWith(JWTValidationFilter.ATRIBUTO_PREFIXO)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Token não informado!");
+        }
+        tokenService.revoke(authorization.substring(JWTValidationFilter.ATRIBUTO_PREFIXO.length()));
+    }
+}
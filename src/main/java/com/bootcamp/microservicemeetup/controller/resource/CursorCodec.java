@@ -0,0 +1,47 @@
+package com.bootcamp.microservicemeetup.controller.resource;
+
+import com.bootcamp.microservicemeetup.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Cursor opaco das listagens por keyset. Hoje ele carrega só o último id, mas o prefixo
+ * permite mudar o formato sem aceitar cursores antigos por engano.
+ */
+final class CursorCodec {
+
+    private static final String PREFIX = "v1:";
+
+    static final int MAX_SIZE = 100;
+
+    private CursorCodec() {
+    }
+
+    static String encode(Integer lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Integer decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!value.startsWith(PREFIX)) {
+                throw new BusinessException("Cursor inválido!");
+            }
+            return Integer.valueOf(value.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Cursor inválido!");
+        }
+    }
+
+    static int size(int size) {
+        if (size < 1 || size > MAX_SIZE) {
+            throw new BusinessException("O tamanho da página deve ser entre 1 e " + MAX_SIZE + "!");
+        }
+        return size;
+    }
+}
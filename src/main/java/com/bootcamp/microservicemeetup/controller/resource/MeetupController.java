@@ -1,27 +1,43 @@
 package com.bootcamp.microservicemeetup.controller.resource;
 
+import com.bootcamp.microservicemeetup.controller.dto.BulkEnrollmentDTO;
+import com.bootcamp.microservicemeetup.controller.dto.BulkEnrollmentResultDTO;
+import com.bootcamp.microservicemeetup.controller.dto.CursorPageDTO;
+import com.bootcamp.microservicemeetup.controller.dto.EnrollmentResultDTO;
+import com.bootcamp.microservicemeetup.controller.dto.FieldSet;
 import com.bootcamp.microservicemeetup.controller.dto.MeetupDTO;
 import com.bootcamp.microservicemeetup.controller.dto.MeetupFilterDTO;
+import com.bootcamp.microservicemeetup.controller.dto.MeetupSuggestionDTO;
 import com.bootcamp.microservicemeetup.controller.dto.RegistrationFilterDTO;
+import com.bootcamp.microservicemeetup.controller.dto.TrackSubscriptionDTO;
 import com.bootcamp.microservicemeetup.exception.BusinessException;
+import com.bootcamp.microservicemeetup.model.RosterEntry;
 import com.bootcamp.microservicemeetup.model.entity.Meetup;
 import com.bootcamp.microservicemeetup.model.entity.Registration;
+import com.bootcamp.microservicemeetup.service.CountStrategy;
+import com.bootcamp.microservicemeetup.service.CountedPage;
 import com.bootcamp.microservicemeetup.service.MeetupService;
+import com.bootcamp.microservicemeetup.service.MembershipOutcome;
+import com.bootcamp.microservicemeetup.service.MembershipService;
 import com.bootcamp.microservicemeetup.service.RegistrationService;
+import com.bootcamp.microservicemeetup.service.SubscriptionBatcher;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
 import javax.validation.Valid;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -30,10 +46,15 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Api(value = "API Rest Meetup")
 public class MeetupController {
+
+    private static final int MAX_SUGGESTIONS = 50;
+
     @Autowired
     private RegistrationService registrationService;
 
     private final MeetupService meetupService;
+    private final MembershipService membershipService;
+    private final SubscriptionBatcher subscriptionBatcher;
     private final ModelMapper modelMapper;
 
     @PostMapping
@@ -46,35 +67,72 @@ public class MeetupController {
         Meetup entity = Meetup.builder()
                 .event(meetupDTO.getEvent())
                 .meetupDate(meetupDTO.getMeetupDate())
+                .capacity(meetupDTO.getCapacity())
                 .build();
 
         entity = meetupService.save(entity);
-        return modelMapper.map(entity, MeetupDTO.class);
+        return MeetupDTO.from(entity);
     }
 
     @GetMapping
     @ApiOperation(value = "Find all meetups")
-    public Page<MeetupDTO> find(MeetupFilterDTO dto, Pageable pageRequest) {
+    public CountedPage<MeetupDTO> find(MeetupFilterDTO dto, Pageable pageRequest,
+                                       @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                       @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                       @RequestParam(defaultValue = "EXACT") CountStrategy count,
+                                       @RequestParam(required = false) String fields) {
+        FieldSet fieldSet = FieldSet.of(fields, MeetupDTO.FIELDS);
         Meetup filter = modelMapper.map(dto, Meetup.class);
-        Page<Meetup> result = meetupService.find(filter, pageRequest);
+        CountedPage<Meetup> result = meetupService.find(filter, from, to, pageRequest, count, fieldSet.has("registrations"));
         List<MeetupDTO> meetups = result
                 .getContent()
                 .stream()
-                .map(entity -> {
+                .map(meetup -> MeetupDTO.from(meetup, fieldSet))
+                .collect(Collectors.toList());
+        return new CountedPage<MeetupDTO>(meetups, pageRequest, result.getTotalElements(), result.isTotalExact());
+    }
 
-                    MeetupDTO meetupDTO = modelMapper.map(entity, MeetupDTO.class);
+    @GetMapping("scroll")
+    @ApiOperation(value = "Find meetups page by page using a cursor, without counting")
+    public CursorPageDTO<MeetupDTO> scroll(MeetupFilterDTO dto,
+                                           @RequestParam(required = false) String after,
+                                           @RequestParam(defaultValue = "20") int size,
+                                           @RequestParam(required = false) String fields) {
+        FieldSet fieldSet = FieldSet.of(fields, MeetupDTO.FIELDS);
+        Meetup filter = modelMapper.map(dto, Meetup.class);
+        Slice<Meetup> result = meetupService.scroll(filter, CursorCodec.decode(after), CursorCodec.size(size), fieldSet.has("registrations"));
+        List<Meetup> content = result.getContent();
+
+        return CursorPageDTO.<MeetupDTO>builder()
+                .content(content.stream().map(meetup -> MeetupDTO.from(meetup, fieldSet)).collect(Collectors.toList()))
+                .size(content.size())
+                .hasNext(result.hasNext())
+                .next(result.hasNext() ? CursorCodec.encode(content.get(content.size() - 1).getId()) : null)
+                .build();
+    }
 
-                    return meetupDTO;
-                }).collect(Collectors.toList());
-        return new PageImpl<MeetupDTO>(meetups, pageRequest, result.getTotalElements());
+    @GetMapping("suggest")
+    @ApiOperation(value = "Suggest meetup events starting with a prefix")
+    public List<MeetupSuggestionDTO> suggest(@RequestParam(defaultValue = "") String prefix,
+                                             @RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new BusinessException("O limite de sugestões deve ser entre 1 e " + MAX_SUGGESTIONS + "!");
+        }
+        if (prefix.isBlank()) {
+            return List.of();
+        }
+        return meetupService.suggest(prefix, limit)
+                .stream()
+                .map(meetup -> new MeetupSuggestionDTO(meetup.getId(), meetup.getEvent()))
+                .collect(Collectors.toList());
     }
 
     @GetMapping("{id}")
     @ApiOperation(value = "Find a especific Meetup")
-    public MeetupDTO findById(@PathVariable Integer id) {
-        return meetupService.getMeetupById(id).map(
-                meetup -> modelMapper.map(meetup, MeetupDTO.class)
-        ).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+    public MeetupDTO findById(@PathVariable Integer id, @RequestParam(required = false) String fields) {
+        FieldSet fieldSet = FieldSet.of(fields, MeetupDTO.FIELDS);
+        return meetupService.getMeetupById(id).map(meetup -> MeetupDTO.from(meetup, fieldSet))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
     }
 
     @PutMapping("{id}")
@@ -87,10 +145,11 @@ public class MeetupController {
             }
             meetup.setEvent(meetupDTO.getEvent());
             meetup.setMeetupDate(meetupDTO.getMeetupDate());
+            meetup.setCapacity(meetupDTO.getCapacity());
 
             meetup = meetupService.update(meetup);
 
-            return modelMapper.map(meetup, MeetupDTO.class);
+            return MeetupDTO.from(meetup);
         }).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
     }
 
@@ -110,30 +169,69 @@ public class MeetupController {
     public MeetupDTO subscribe(@PathVariable Integer id, @RequestBody @Valid RegistrationFilterDTO registrationFilterDTO) {
 
         return meetupService.getMeetupById(id).map(meetup -> {
+            if (subscriptionBatcher.isEnabled()) {
+                MembershipOutcome outcome = subscriptionBatcher.submit(meetup.getId(), registrationFilterDTO.getId());
+                if (outcome == MembershipOutcome.NOT_FOUND) {
+                    throw new IllegalArgumentException(outcome.message(meetup));
+                }
+                if (outcome != MembershipOutcome.JOINED) {
+                    throw new BusinessException(outcome.message(meetup));
+                }
+                return MeetupDTO.from(meetup);
+            }
+
             Optional<Registration> registration = registrationService.getRegistrationById(registrationFilterDTO.getId());
 
             if (!registration.isPresent()) {
                 throw new IllegalArgumentException("Registration não encontrada!");
             }
 
-            if (meetup.getRegistrations().contains(registration.get())) {
-                throw new BusinessException("A Meetup já contém a registration informada!");
-            }
-            for ( Meetup meet:registration.get().getMeetups()) {
-                if(meet.getMeetupDate().equals(meetup.getMeetupDate())){
-                    throw new BusinessException("A Registration já está inscrita em outra meetup no dia "+ meetup.getMeetupDate());
-                }
-            }
-            meetup.getRegistrations().add(registration.get());
-            registration.get().getMeetups().add(meetup);
+            meetup = membershipService.join(meetup, registration.get());
 
-            meetup = meetupService.update(meetup);
-            registrationService.update(registration.get());
+            return MeetupDTO.from(meetup);
+        }).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+    }
 
-            return modelMapper.map(meetup, MeetupDTO.class);
+    @PostMapping("{id}/registrations:batch")
+    @ApiOperation(value = "Add many Registrations to a specific Meetup")
+    public BulkEnrollmentResultDTO enroll(@PathVariable Integer id, @RequestBody @Valid BulkEnrollmentDTO bulkEnrollmentDTO) {
+
+        return meetupService.getMeetupById(id).map(meetup -> {
+            Map<Integer, MembershipOutcome> outcomes = membershipService.joinAll(meetup, bulkEnrollmentDTO.getRegistrationIds());
+
+            List<EnrollmentResultDTO> results = outcomes.entrySet()
+                    .stream()
+                    .map(entry -> EnrollmentResultDTO.builder()
+                            .registrationId(entry.getKey())
+                            .outcome(entry.getValue())
+                            .message(entry.getValue().message(meetup))
+                            .build())
+                    .collect(Collectors.toList());
+
+            return BulkEnrollmentResultDTO.builder()
+                    .meetupId(meetup.getId())
+                    .joined(results.stream().filter(result -> result.getOutcome() == MembershipOutcome.JOINED).count())
+                    .results(results)
+                    .build();
         }).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
     }
 
+    @GetMapping("{id}/registrations")
+    @ApiOperation(value = "List the Registrations of a specific Meetup")
+    public Page<RosterEntry> registrations(@PathVariable Integer id, Pageable pageRequest) {
+        return meetupService.getRegistrationsByMeetup(id, pageRequest);
+    }
+
+    @PutMapping("track/subscribe")
+    @ApiOperation(value = "Add a Registration to every Meetup of a track, all or nothing")
+    public List<MeetupDTO> subscribeTrack(@RequestBody @Valid TrackSubscriptionDTO trackSubscriptionDTO) {
+
+        return meetupService.subscribeTrack(trackSubscriptionDTO.getRegistrationId(), trackSubscriptionDTO.getMeetupIds())
+                .stream()
+                .map(MeetupDTO::from)
+                .collect(Collectors.toList());
+    }
+
     @PutMapping("{id}/unsubscribe")
     @ApiOperation(value = "Remove a Registration from a specific Meetup")
     public MeetupDTO unsubscribe(@PathVariable Integer id, @RequestBody @Valid RegistrationFilterDTO registrationFilterDTO) {
@@ -144,13 +242,9 @@ public class MeetupController {
             if (!registration.isPresent()) {
                 throw new IllegalArgumentException("Registration não encontrada!");
             }
-            meetup.getRegistrations().remove(registration.get());
-            registration.get().getMeetups().remove(meetup);
-
-            meetup = meetupService.update(meetup);
-            registrationService.update(registration.get());
+            meetup = membershipService.leave(meetup, registration.get());
 
-            return modelMapper.map(meetup, MeetupDTO.class);
+            return MeetupDTO.from(meetup);
         }).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
     }
 
@@ -1,16 +1,21 @@
 package com.bootcamp.microservicemeetup.controller.resource;
 
+import com.bootcamp.microservicemeetup.controller.dto.CursorPageDTO;
+import com.bootcamp.microservicemeetup.controller.dto.FieldSet;
 import com.bootcamp.microservicemeetup.controller.dto.RegistrationDTO;
 import com.bootcamp.microservicemeetup.controller.dto.RegistrationFilterDTO;
 import com.bootcamp.microservicemeetup.controller.dto.RegistrationResponseDTO;
+import com.bootcamp.microservicemeetup.exception.BusinessException;
 import com.bootcamp.microservicemeetup.model.entity.Registration;
+import com.bootcamp.microservicemeetup.service.CountStrategy;
+import com.bootcamp.microservicemeetup.service.CountedPage;
 import com.bootcamp.microservicemeetup.service.RegistrationService;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
@@ -41,31 +46,71 @@ public class RegistrationController {
         Registration entity = modelMapper.map(dto, Registration.class);
         entity = registrationService.save(entity);
 
-        return modelMapper.map(entity, RegistrationResponseDTO.class);
+        return RegistrationResponseDTO.from(entity);
     }
 
     @GetMapping
     @ApiOperation(value = "Get all registrations")
-    public Page<RegistrationResponseDTO> find(RegistrationDTO dto, Pageable pageRequest) {
+    public CountedPage<RegistrationResponseDTO> find(RegistrationDTO dto, Pageable pageRequest,
+                                                     @RequestParam(defaultValue = "EXACT") CountStrategy count,
+                                                     @RequestParam(required = false) String fields) {
+        FieldSet fieldSet = FieldSet.of(fields, RegistrationResponseDTO.FIELDS);
         Registration filter = modelMapper.map(dto, Registration.class);
-        Page<Registration> result = registrationService.find(filter, pageRequest);
+        CountedPage<Registration> result = registrationService.find(filter, pageRequest, count);
 
         List<RegistrationResponseDTO> list = result.getContent()
                 .stream()
-                .map(entity -> modelMapper.map(entity, RegistrationResponseDTO.class))
+                .map(registration -> RegistrationResponseDTO.from(registration, fieldSet))
                 .collect(Collectors.toList());
 
-        return new PageImpl<RegistrationResponseDTO>(list, pageRequest, result.getTotalElements());
+        return new CountedPage<RegistrationResponseDTO>(list, pageRequest, result.getTotalElements(), result.isTotalExact());
+    }
+
+    @GetMapping("scroll")
+    @ApiOperation(value = "Get registrations page by page using a cursor, without counting")
+    public CursorPageDTO<RegistrationResponseDTO> scroll(RegistrationDTO dto,
+                                                         @RequestParam(required = false) String after,
+                                                         @RequestParam(defaultValue = "20") int size,
+                                                         @RequestParam(required = false) String fields) {
+        FieldSet fieldSet = FieldSet.of(fields, RegistrationResponseDTO.FIELDS);
+        Registration filter = modelMapper.map(dto, Registration.class);
+        Slice<Registration> result = registrationService.scroll(filter, CursorCodec.decode(after), CursorCodec.size(size));
+        List<Registration> content = result.getContent();
+
+        return CursorPageDTO.<RegistrationResponseDTO>builder()
+                .content(content.stream().map(registration -> RegistrationResponseDTO.from(registration, fieldSet)).collect(Collectors.toList()))
+                .size(content.size())
+                .hasNext(result.hasNext())
+                .next(result.hasNext() ? CursorCodec.encode(content.get(content.size() - 1).getId()) : null)
+                .build();
+    }
+
+    @GetMapping("search")
+    @ApiOperation(value = "Search registrations by name, ignoring case and accents")
+    public CountedPage<RegistrationResponseDTO> search(@RequestParam String name, Pageable pageRequest,
+                                                       @RequestParam(required = false) String fields) {
+        if (name.isBlank()) {
+            throw new BusinessException("Informe o nome para a busca!");
+        }
+        FieldSet fieldSet = FieldSet.of(fields, RegistrationResponseDTO.FIELDS);
+        CountedPage<Registration> result = registrationService.searchByName(name, pageRequest);
+        List<RegistrationResponseDTO> list = result.getContent()
+                .stream()
+                .map(registration -> RegistrationResponseDTO.from(registration, fieldSet))
+                .collect(Collectors.toList());
+
+        return new CountedPage<RegistrationResponseDTO>(list, pageRequest, result.getTotalElements(), result.isTotalExact());
     }
 
     @GetMapping("{id}")
     @ResponseStatus(HttpStatus.OK)
     @ApiOperation(value = "Get a specific registration")
-    public RegistrationResponseDTO get(@PathVariable Integer id) {
+    public RegistrationResponseDTO get(@PathVariable Integer id, @RequestParam(required = false) String fields) {
+        FieldSet fieldSet = FieldSet.of(fields, RegistrationResponseDTO.FIELDS);
 
         return registrationService
                 .getRegistrationById(id)
-                .map(registration -> modelMapper.map(registration, RegistrationResponseDTO.class))
+                .map(registration -> RegistrationResponseDTO.from(registration, fieldSet))
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
     }
 
@@ -79,7 +124,7 @@ public class RegistrationController {
             registration.setPassword(registrationDTO.getPassword());
             registration = registrationService.update(registration);
 
-            return modelMapper.map(registration, RegistrationResponseDTO.class);
+            return RegistrationResponseDTO.from(registration);
         }).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
     }
 
@@ -0,0 +1,17 @@
+package com.bootcamp.microservicemeetup.exception;
+
+public class PasswordHashingBusyException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterSeconds;
+
+    public PasswordHashingBusyException(String s, long retryAfterSeconds) {
+        super(s);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,37 @@
+package com.bootcamp.microservicemeetup.model;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.util.List;
+
+/**
+ * Formatos aceitos na data textual da Meetup. {@code "2021-10-10"} e {@code "10/10/2021"}
+ * são o mesmo dia, e é o dia ({@link LocalDate}) que vai para a coluna indexada.
+ */
+public final class MeetupDates {
+
+    private static final List<DateTimeFormatter> FORMATS = List.of(
+            DateTimeFormatter.ofPattern("dd/MM/uuuu").withResolverStyle(ResolverStyle.STRICT),
+            DateTimeFormatter.ofPattern("dd-MM-uuuu").withResolverStyle(ResolverStyle.STRICT),
+            DateTimeFormatter.ISO_LOCAL_DATE);
+
+    private MeetupDates() {
+    }
+
+    /** O dia representado por {@code text}, ou {@code null} se não estiver em nenhum formato aceito. */
+    public static LocalDate parse(String text) {
+        if (text == null) {
+            return null;
+        }
+        for (DateTimeFormatter format : FORMATS) {
+            try {
+                return LocalDate.parse(text.trim(), format);
+            } catch (DateTimeParseException e) {
+                // tenta o próximo formato
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,14 @@
+package com.bootcamp.microservicemeetup.model;
+
+import lombok.Value;
+
+/** Linha da lista de presença de uma Meetup, montada direto pela consulta (sem carregar a entidade). */
+@Value
+public class RosterEntry {
+
+    Integer id;
+
+    String name;
+
+    String registration;
+}
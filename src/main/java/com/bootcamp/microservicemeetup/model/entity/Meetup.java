@@ -1,11 +1,13 @@
 package com.bootcamp.microservicemeetup.model.entity;
 
+import com.bootcamp.microservicemeetup.model.MeetupDates;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import javax.persistence.*;
+import java.time.LocalDate;
 import java.util.List;
 
 @Data
@@ -13,7 +15,7 @@ import java.util.List;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "meetups")
+@Table(name = "meetups", indexes = @Index(name = "idx_meetups_meetup_day", columnList = "meetup_day"))
 public class Meetup {
 
     @Id
@@ -23,11 +25,39 @@ public class Meetup {
     @Column(nullable = false)
     private String event;
 
-    @Column
-    @ManyToMany(mappedBy = "")
+    @ManyToMany(mappedBy = "meetups")
     private List<Registration> registrations;
 
     @Column(nullable = false)
     private String meetupDate;
 
+    // preenchida a partir de meetupDate; linhas antigas são migradas pelo MeetupDayBackfill
+    @Column(name = "meetup_day")
+    private LocalDate meetupDay;
+
+    @Column
+    private Integer capacity;
+
+    /** O dia da Meetup, mesmo que ainda não tenha sido gravado na coluna. */
+    public LocalDate getMeetupDay() {
+        return meetupDay != null ? meetupDay : MeetupDates.parse(meetupDate);
+    }
+
+    /**
+     * Se as duas Meetups caem no mesmo dia. Sem dia reconhecível (Meetups antigas fora dos formatos),
+     * compara a data textual, como era feito antes da coluna {@code meetup_day}.
+     */
+    public boolean sameDayAs(Meetup other) {
+        LocalDate day = getMeetupDay();
+        if (day != null) {
+            return day.equals(other.getMeetupDay());
+        }
+        return meetupDate != null && meetupDate.equals(other.getMeetupDate());
+    }
+
+    @PrePersist
+    @PreUpdate
+    void fillMeetupDay() {
+        meetupDay = MeetupDates.parse(meetupDate);
+    }
 }
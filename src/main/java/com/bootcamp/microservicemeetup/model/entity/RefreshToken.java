@@ -0,0 +1,37 @@
+package com.bootcamp.microservicemeetup.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "refresh_tokens", indexes = {
+        @Index(name = "idx_refresh_tokens_registration", columnList = "registration"),
+        @Index(name = "idx_refresh_tokens_expires_at", columnList = "expires_at"),
+        @Index(name = "uk_refresh_tokens_access_jti", columnList = "access_jti", unique = true)
+})
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true, length = 64)
+    private String tokenHash;
+
+    @Column(nullable = false)
+    private String registration;
+
+    @Column(name = "access_jti", length = 36)
+    private String accessJti;
+
+    @Column(name = "expires_at", nullable = false)
+    private Long expiresAt;
+}
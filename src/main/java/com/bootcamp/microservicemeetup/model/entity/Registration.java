@@ -51,7 +51,9 @@ public class Registration implements UserDetails {
             joinColumns = @JoinColumn(
                     name = "registration_id", referencedColumnName = "id"),
             inverseJoinColumns = @JoinColumn(
-                    name = "meetup_id", referencedColumnName = "id")
+                    name = "meetup_id", referencedColumnName = "id"),
+            uniqueConstraints = @UniqueConstraint(
+                    name = "uk_registrations_meetups", columnNames = {"registration_id", "meetup_id"})
     )
     private List<Meetup> meetups;
 
@@ -0,0 +1,24 @@
+package com.bootcamp.microservicemeetup.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "revoked_tokens")
+public class RevokedToken {
+
+    @Id
+    @Column(length = 36)
+    private String jti;
+
+    @Column(nullable = false)
+    private Long expiresAt;
+}
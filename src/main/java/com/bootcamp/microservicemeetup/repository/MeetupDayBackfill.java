@@ -0,0 +1,69 @@
+package com.bootcamp.microservicemeetup.repository;
+
+import com.bootcamp.microservicemeetup.model.MeetupDates;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Preenche {@code meetup_day} nas linhas gravadas antes da coluna existir. Anda por id em lotes
+ * de {@code meetup.day.backfill.batch-size}, cada lote na sua própria transação curta, então nenhuma
+ * trava dura mais que um lote. Linhas com data fora dos formatos aceitos ficam sem dia e são
+ * apenas registradas no log.
+ */
+@Slf4j
+@Component
+public class MeetupDayBackfill {
+
+    private MeetupRepository repository;
+
+    private TransactionTemplate transactionTemplate;
+
+    private int batchSize;
+
+    public MeetupDayBackfill(MeetupRepository repository, PlatformTransactionManager transactionManager,
+                             @Value("${meetup.day.backfill.batch-size:1000}") int batchSize) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public int run() {
+        int filled = 0;
+        Integer afterId = 0;
+        List<Object[]> rows;
+        do {
+            rows = repository.findWithoutDayAfter(afterId, PageRequest.of(0, batchSize));
+            Map<LocalDate, List<Integer>> byDay = new HashMap<>();
+            for (Object[] row : rows) {
+                Integer id = (Integer) row[0];
+                LocalDate day = MeetupDates.parse((String) row[1]);
+                if (day == null) {
+                    log.warn("Meetup {} tem data fora dos formatos aceitos: {}", id, row[1]);
+                } else {
+                    byDay.computeIfAbsent(day, key -> new ArrayList<>()).add(id);
+                }
+                afterId = id;
+            }
+            if (!byDay.isEmpty()) {
+                filled += transactionTemplate.execute(status -> byDay.entrySet()
+                        .stream()
+                        .mapToInt(entry -> repository.fillMeetupDay(entry.getKey(), entry.getValue()))
+                        .sum());
+            }
+        } while (rows.size() == batchSize);
+        return filled;
+    }
+}
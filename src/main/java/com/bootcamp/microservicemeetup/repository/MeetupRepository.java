@@ -1,16 +1,49 @@
 package com.bootcamp.microservicemeetup.repository;
 
+import com.bootcamp.microservicemeetup.model.RosterEntry;
 import com.bootcamp.microservicemeetup.model.entity.Meetup;
-import com.bootcamp.microservicemeetup.model.entity.Registration;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface MeetupRepository extends JpaRepository<Meetup, Integer> {
+public interface MeetupRepository extends JpaRepository<Meetup, Integer>, JpaSpecificationExecutor<Meetup>, ScrollRepository {
     Optional<Meetup> findByEvent(String event);
+
+    List<Meetup> findByEventStartingWithIgnoreCaseOrderByEventAscIdAsc(String prefix, Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select m from Meetup m where m.id in :ids order by m.id")
+    List<Meetup> findAllForUpdate(@Param("ids") Collection<Integer> ids);
+
+    @Query("select distinct m from Meetup m left join fetch m.registrations where m.id in :ids")
+    @QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.PASS_DISTINCT_THROUGH, value = "false"))
+    List<Meetup> findWithRegistrationsByIdIn(@Param("ids") Collection<Integer> ids);
+
+    @Query(value = "select new com.bootcamp.microservicemeetup.model.RosterEntry(r.id, r.name, r.registration) "
+            + "from Registration r join r.meetups m where m.id = :meetupId",
+            countQuery = "select count(r) from Registration r join r.meetups m where m.id = :meetupId")
+    Page<RosterEntry> findRoster(@Param("meetupId") Integer meetupId, Pageable pageable);
+
+    @Query("select m.id, m.event from Meetup m where m.id > :afterId order by m.id")
+    List<Object[]> findEventsAfter(@Param("afterId") Integer afterId, Pageable pageable);
+
+    @Query("select m.id, m.meetupDate from Meetup m where m.meetupDay is null and m.id > :afterId order by m.id")
+    List<Object[]> findWithoutDayAfter(@Param("afterId") Integer afterId, Pageable pageable);
+
+    @Modifying
+    @Query("update Meetup m set m.meetupDay = :day where m.id in :ids and m.meetupDay is null")
+    int fillMeetupDay(@Param("day") LocalDate day, @Param("ids") Collection<Integer> ids);
 }
@@ -0,0 +1,30 @@
+package com.bootcamp.microservicemeetup.repository;
+
+import com.bootcamp.microservicemeetup.model.entity.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    @Modifying
+    @Query("delete from RefreshToken t where t.id = :id")
+    int deleteAndCount(@Param("id") Long id);
+
+    @Modifying
+    @Query("delete from RefreshToken t where t.registration = :registration")
+    int deleteByRegistration(@Param("registration") String registration);
+
+    @Modifying
+    @Query("delete from RefreshToken t where t.accessJti = :accessJti")
+    int deleteByAccessJti(@Param("accessJti") String accessJti);
+
+    @Modifying
+    @Query("delete from RefreshToken t where t.expiresAt <= :now")
+    int deleteExpired(@Param("now") Long now);
+}
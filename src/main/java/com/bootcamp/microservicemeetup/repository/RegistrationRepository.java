@@ -1,13 +1,66 @@
 package com.bootcamp.microservicemeetup.repository;
 
+import com.bootcamp.microservicemeetup.model.entity.Meetup;
 import com.bootcamp.microservicemeetup.model.entity.Registration;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-public interface RegistrationRepository extends JpaRepository<Registration, Integer> {
+public interface RegistrationRepository extends JpaRepository<Registration, Integer>, JpaSpecificationExecutor<Registration>,
+        RegistrationRepositoryCustom, ScrollRepository {
 
     boolean existsByRegistration(String registration);
 
     Optional<Registration> findByRegistration(String registrationAtrb);
+
+    @Query("select r.registration, r.password, ro.nomeRole from Registration r left join r.roles ro where r.registration = :registration")
+    List<Object[]> findPrincipalRows(@Param("registration") String registration);
+
+    @Query("select r.id, r.name from Registration r where r.id > :afterId order by r.id")
+    List<Object[]> findNamesAfter(@Param("afterId") Integer afterId, Pageable pageable);
+
+    boolean existsByIdAndMeetups_Id(Integer id, Integer meetupId);
+
+    boolean existsByIdAndMeetups_MeetupDay(Integer id, LocalDate meetupDay);
+
+    boolean existsByIdAndMeetups_MeetupDate(Integer id, String meetupDate);
+
+    long countByMeetups_Id(Integer meetupId);
+
+    @Query("select r.id from Registration r where r.id in :ids")
+    List<Integer> findIdsByIdIn(@Param("ids") Collection<Integer> ids);
+
+    @Query("select r.id from Registration r join r.meetups m where m.id = :meetupId and r.id in :ids")
+    List<Integer> findMemberIds(@Param("meetupId") Integer meetupId, @Param("ids") Collection<Integer> ids);
+
+    @Query("select m from Registration r join r.meetups m where r.id = :id"
+            + " and (m.id in :meetupIds or m.meetupDay in :days or m.meetupDate in :dates)")
+    List<Meetup> findAgendaConflicts(@Param("id") Integer id,
+                                     @Param("meetupIds") Collection<Integer> meetupIds,
+                                     @Param("days") Collection<LocalDate> days,
+                                     @Param("dates") Collection<String> dates);
+
+    @Query("select distinct r.id from Registration r join r.meetups m where m.meetupDay = :meetupDay and r.id in :ids")
+    List<Integer> findIdsWithMeetupOn(@Param("meetupDay") LocalDate meetupDay, @Param("ids") Collection<Integer> ids);
+
+    @Query("select distinct r.id from Registration r join r.meetups m where m.meetupDate = :meetupDate and r.id in :ids")
+    List<Integer> findIdsWithMeetupDate(@Param("meetupDate") String meetupDate, @Param("ids") Collection<Integer> ids);
+
+    @Modifying
+    @Query(value = "INSERT INTO registrations_meetups (registration_id, meetup_id) VALUES (:registrationId, :meetupId)",
+            nativeQuery = true)
+    int insertMembership(@Param("registrationId") Integer registrationId, @Param("meetupId") Integer meetupId);
+
+    @Modifying
+    @Query(value = "DELETE FROM registrations_meetups WHERE registration_id = :registrationId AND meetup_id = :meetupId",
+            nativeQuery = true)
+    int deleteMembership(@Param("registrationId") Integer registrationId, @Param("meetupId") Integer meetupId);
 }
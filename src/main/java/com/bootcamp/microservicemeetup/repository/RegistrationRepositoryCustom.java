@@ -0,0 +1,10 @@
+package com.bootcamp.microservicemeetup.repository;
+
+import java.util.List;
+
+public interface RegistrationRepositoryCustom {
+
+    int[] insertMemberships(Integer meetupId, List<Integer> registrationIds);
+
+    int[] insertRegistrationMeetups(Integer registrationId, List<Integer> meetupIds);
+}
@@ -0,0 +1,53 @@
+package com.bootcamp.microservicemeetup.repository;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Savepoint;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class RegistrationRepositoryCustomImpl implements RegistrationRepositoryCustom {
+
+    private static final String INSERT_MEMBERSHIP =
+            "INSERT INTO registrations_meetups (registration_id, meetup_id) VALUES (?, ?)";
+
+    private JdbcTemplate jdbcTemplate;
+
+    public RegistrationRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int[] insertMemberships(Integer meetupId, List<Integer> registrationIds) {
+        List<Object[]> rows = registrationIds.stream()
+                .map(registrationId -> new Object[]{registrationId, meetupId})
+                .collect(Collectors.toList());
+        // o driver segue o lote depois de uma linha com erro; o savepoint desfaz o lote inteiro
+        // para quem chama poder repetir linha a linha sem tropeçar nas linhas que este lote gravou
+        return jdbcTemplate.execute((ConnectionCallback<int[]>) connection -> {
+            Savepoint savepoint = connection.getAutoCommit() ? null : connection.setSavepoint();
+            try {
+                int[] counts = jdbcTemplate.batchUpdate(INSERT_MEMBERSHIP, rows);
+                if (savepoint != null) {
+                    connection.releaseSavepoint(savepoint);
+                }
+                return counts;
+            } catch (DataAccessException e) {
+                if (savepoint != null) {
+                    connection.rollback(savepoint);
+                }
+                throw e;
+            }
+        });
+    }
+
+    @Override
+    public int[] insertRegistrationMeetups(Integer registrationId, List<Integer> meetupIds) {
+        List<Object[]> rows = meetupIds.stream()
+                .map(meetupId -> new Object[]{registrationId, meetupId})
+                .collect(Collectors.toList());
+        return jdbcTemplate.batchUpdate(INSERT_MEMBERSHIP, rows);
+    }
+}
@@ -0,0 +1,18 @@
+package com.bootcamp.microservicemeetup.repository;
+
+import com.bootcamp.microservicemeetup.model.entity.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+    List<RevokedToken> findByExpiresAtGreaterThan(Long now);
+
+    @Modifying
+    @Query("delete from RevokedToken t where t.expiresAt <= :now")
+    int deleteExpired(@Param("now") Long now);
+}
@@ -0,0 +1,12 @@
+package com.bootcamp.microservicemeetup.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface ScrollRepository {
+
+    <T> Slice<T> scroll(Class<T> domainType, Specification<T> specification, Integer afterId, int size);
+
+    <T> Slice<T> findSlice(Class<T> domainType, Specification<T> specification, Pageable pageable);
+}
@@ -0,0 +1,83 @@
+package com.bootcamp.microservicemeetup.repository;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Consultas paginadas sem {@code COUNT(*)}: busca um registro a mais para saber se há próxima página.
+ * {@link #scroll} pagina por keyset ({@code id > afterId}) e {@link #findSlice} por offset.
+ */
+public class ScrollRepositoryImpl implements ScrollRepository {
+
+    private EntityManager entityManager;
+
+    public ScrollRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public <T> Slice<T> scroll(Class<T> domainType, Specification<T> specification, Integer afterId, int size) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = builder.createQuery(domainType);
+        Root<T> root = query.from(domainType);
+
+        List<Predicate> predicates = new ArrayList<>();
+        Predicate bySpecification = specification == null ? null : specification.toPredicate(root, query, builder);
+        if (bySpecification != null) {
+            predicates.add(bySpecification);
+        }
+        if (afterId != null) {
+            predicates.add(builder.greaterThan(root.<Integer>get("id"), afterId));
+        }
+        query.select(root)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(builder.asc(root.get("id")));
+
+        List<T> rows = entityManager.createQuery(query)
+                .setMaxResults(size + 1)
+                .getResultList();
+
+        boolean hasNext = rows.size() > size;
+        return new SliceImpl<>(hasNext ? rows.subList(0, size) : rows, PageRequest.of(0, size, Sort.by("id")), hasNext);
+    }
+
+    @Override
+    public <T> Slice<T> findSlice(Class<T> domainType, Specification<T> specification, Pageable pageable) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = builder.createQuery(domainType);
+        Root<T> root = query.from(domainType);
+
+        Predicate bySpecification = specification == null ? null : specification.toPredicate(root, query, builder);
+        query.select(root);
+        if (bySpecification != null) {
+            query.where(bySpecification);
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, builder));
+
+        TypedQuery<T> typedQuery = entityManager.createQuery(query);
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(typedQuery.getResultList(), pageable, false);
+        }
+        List<T> rows = typedQuery
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+}
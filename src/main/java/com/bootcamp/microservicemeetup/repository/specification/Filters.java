@@ -0,0 +1,42 @@
+package com.bootcamp.microservicemeetup.repository.specification;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.Locale;
+
+/**
+ * Peças comuns dos filtros. Cada uma devolve {@code null} quando o valor não foi informado,
+ * e {@link Specification#and} simplesmente a ignora.
+ */
+final class Filters {
+
+    private static final char ESCAPE = '\\';
+
+    private Filters() {
+    }
+
+    static <T> Specification<T> equal(String attribute, Object value) {
+        if (value == null) {
+            return null;
+        }
+        return (root, query, builder) -> builder.equal(root.get(attribute), value);
+    }
+
+    /** Mesmo critério do {@code ExampleMatcher} antigo: contém, sem diferenciar maiúsculas. */
+    static <T> Specification<T> contains(String attribute, String value) {
+        if (value == null) {
+            return null;
+        }
+        String pattern = "%" + escape(value.toLowerCase(Locale.ROOT)) + "%";
+        return (root, query, builder) -> builder.like(builder.lower(root.get(attribute)), pattern, ESCAPE);
+    }
+
+    static <T> Specification<T> idIn(Collection<Integer> ids) {
+        return (root, query, builder) -> ids.isEmpty() ? builder.disjunction() : root.get("id").in(ids);
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,42 @@
+package com.bootcamp.microservicemeetup.repository.specification;
+
+import com.bootcamp.microservicemeetup.model.entity.Meetup;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.criteria.Path;
+import java.time.LocalDate;
+import java.util.Collection;
+
+public final class MeetupSpecifications {
+
+    private MeetupSpecifications() {
+    }
+
+    public static Specification<Meetup> of(Meetup filter) {
+        return Specification.<Meetup>where(Filters.equal("id", filter.getId()))
+                .and(Filters.contains("event", filter.getEvent()))
+                .and(Filters.contains("meetupDate", filter.getMeetupDate()))
+                .and(Filters.equal("capacity", filter.getCapacity()));
+    }
+
+    public static Specification<Meetup> idIn(Collection<Integer> ids) {
+        return Filters.idIn(ids);
+    }
+
+    /** Faixa de dias na coluna indexada {@code meetup_day}; {@code null} quando não há limites. */
+    public static Specification<Meetup> between(LocalDate from, LocalDate to) {
+        if (from == null && to == null) {
+            return null;
+        }
+        return (root, query, builder) -> {
+            Path<LocalDate> day = root.get("meetupDay");
+            if (from == null) {
+                return builder.lessThanOrEqualTo(day, to);
+            }
+            if (to == null) {
+                return builder.greaterThanOrEqualTo(day, from);
+            }
+            return builder.between(day, from, to);
+        };
+    }
+}
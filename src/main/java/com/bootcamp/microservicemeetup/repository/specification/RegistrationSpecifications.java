@@ -0,0 +1,18 @@
+package com.bootcamp.microservicemeetup.repository.specification;
+
+import com.bootcamp.microservicemeetup.model.entity.Registration;
+import org.springframework.data.jpa.domain.Specification;
+
+public final class RegistrationSpecifications {
+
+    private RegistrationSpecifications() {
+    }
+
+    public static Specification<Registration> of(Registration filter) {
+        return Specification.<Registration>where(Filters.equal("id", filter.getId()))
+                .and(Filters.contains("name", filter.getName()))
+                .and(Filters.contains("dateOfRegistration", filter.getDateOfRegistration()))
+                .and(Filters.contains("registration", filter.getRegistration()))
+                .and(Filters.contains("password", filter.getPassword()));
+    }
+}
@@ -0,0 +1,18 @@
+package com.bootcamp.microservicemeetup.security;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Só o que o login precisa de uma Registration: o atributo de login, o hash da senha e os nomes das roles.
+ */
+@Value
+public class AuthenticatedPrincipal {
+
+    String registration;
+
+    String passwordHash;
+
+    List<String> roles;
+}
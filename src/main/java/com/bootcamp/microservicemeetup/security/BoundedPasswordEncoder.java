@@ -0,0 +1,89 @@
+package com.bootcamp.microservicemeetup.security;
+
+import com.bootcamp.microservicemeetup.exception.PasswordHashingBusyException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Collections;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Roda o BCrypt num pool próprio, com paralelismo fixo e fila limitada, para que uma
+ * rajada de logins e cadastros não ocupe todas as threads do Tomcat.
+ * Com a fila cheia a chamada falha na hora com {@link PasswordHashingBusyException}.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private final PasswordEncoder delegate;
+
+    private final ThreadPoolExecutor executor;
+
+    private final Timer timer;
+
+    private final long retryAfterSeconds;
+
+    private final AtomicInteger threadCount = new AtomicInteger();
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, long retryAfterSeconds,
+                                  MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.timer = Timer.builder("security.password.hashing.latency").register(meterRegistry);
+        new ExecutorServiceMetrics(executor, "security.password.hashing", Collections.emptyList()).bindTo(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    int queueDepth() {
+        return executor.getQueue().size();
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private <T> T run(Callable<T> task) {
+        try {
+            return executor.submit(() -> timer.recordCallable(task)).get();
+        } catch (RejectedExecutionException e) {
+            throw new PasswordHashingBusyException("Servidor ocupado, tente novamente em instantes!", retryAfterSeconds);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -1,15 +1,21 @@
 
 package com.bootcamp.microservicemeetup.security;
 
-import com.auth0.jwt.JWT;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.bootcamp.microservicemeetup.controller.dto.LoginDto;
+import com.bootcamp.microservicemeetup.controller.dto.TokenDTO;
+import com.bootcamp.microservicemeetup.exception.PasswordHashingBusyException;
+import com.bootcamp.microservicemeetup.service.TokenService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 import javax.servlet.FilterChain;
@@ -17,40 +23,76 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.util.Date;
+import java.util.Arrays;
 
 public class JWTAutenticationFilter extends UsernamePasswordAuthenticationFilter {
     public static final String TOKEN_SENHA = "128fc789-d1f2-4f9b-9f1e-a9009ad96388";
 
+    public static final Algorithm ALGORITHM = Algorithm.HMAC512(TOKEN_SENHA);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final ObjectReader LOGIN_READER = MAPPER.readerFor(LoginDto.class);
+
+    private static final ObjectWriter TOKEN_WRITER = MAPPER.writerFor(TokenDTO.class);
+
     public final AuthenticationManager authenticationManager;
 
-    public JWTAutenticationFilter(AuthenticationManager authenticationManager) {
+    private final TokenService tokenService;
+
+    private final LoginRateLimiter ipRateLimiter;
+
+    private final LoginRateLimiter registrationRateLimiter;
+
+    public JWTAutenticationFilter(AuthenticationManager authenticationManager, TokenService tokenService,
+                                  LoginRateLimiter ipRateLimiter, LoginRateLimiter registrationRateLimiter) {
         this.authenticationManager = authenticationManager;
+        this.tokenService = tokenService;
+        this.ipRateLimiter = ipRateLimiter;
+        this.registrationRateLimiter = registrationRateLimiter;
     }
 
     @Override
     public Authentication attemptAuthentication(HttpServletRequest request, HttpServletResponse response) throws AuthenticationException {
+        // os limites são conferidos antes do BCrypt, então uma rajada de senhas erradas custa só um CAS
+        String ip = request.getRemoteAddr();
+        if (!ipRateLimiter.tryAcquire(ip)) {
+            tooManyRequests(response, ipRateLimiter.retryAfterSeconds(ip));
+            return null;
+        }
         try {
-            LoginDto loginDto = new ObjectMapper().readValue(request.getInputStream(), LoginDto.class);
+            LoginDto loginDto = LOGIN_READER.readValue(request.getInputStream());
+
+            if (loginDto.getRegistration() != null && !registrationRateLimiter.tryAcquire(loginDto.getRegistration())) {
+                tooManyRequests(response, registrationRateLimiter.retryAfterSeconds(loginDto.getRegistration()));
+                return null;
+            }
 
             return authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(
                     loginDto.getRegistration(), loginDto.getPassword()));
 
+        } catch (PasswordHashingBusyException e) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+            return null;
         } catch (IOException e) {
             throw new RuntimeException("Login ou senha inválidos! ");
         }
     }
 
+    private void tooManyRequests(HttpServletResponse response, long retryAfterSeconds) {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+    }
+
     @Override
     protected void successfulAuthentication(HttpServletRequest request, HttpServletResponse response, FilterChain chain, Authentication authResult) throws IOException, ServletException {
-        User usuario = (User) authResult.getPrincipal();
-
-        String token = JWT.create()
-                .withSubject(usuario.getUsername())
-                .withExpiresAt(new Date(System.currentTimeMillis() + 3600000)) // 1 hora
-                .sign(Algorithm.HMAC512(TOKEN_SENHA));
+        TokenDTO token = tokenService.issue(authResult.getName(),
+                Arrays.asList(RoleAuthorities.names(authResult.getAuthorities())));
 
-        response.getWriter().write(token);
-        response.getWriter().flush();
+        byte[] body = TOKEN_WRITER.writeValueAsBytes(token);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
     }
 }
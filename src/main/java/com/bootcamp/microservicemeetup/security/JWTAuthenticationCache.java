@@ -0,0 +1,94 @@
+package com.bootcamp.microservicemeetup.security;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Guarda o usuário e as authorities dos tokens já verificados até o {@code exp} de cada um,
+ * assim o mesmo token reenviado não passa de novo pelo HMAC-SHA512 nem pelo parse do JSON.
+ * Só os dados imutáveis ficam no cache: cada requisição recebe a sua própria autenticação,
+ * que é mutável e vai para o {@code SecurityContext} dela.
+ */
+public class JWTAuthenticationCache {
+
+    static final JWTVerifier VERIFIER = JWT.require(JWTAutenticationFilter.ALGORITHM).build();
+
+    private final Cache<String, Entry> cache;
+
+    private final TokenRevocationList revocationList;
+
+    public JWTAuthenticationCache(long maximumSize, TokenRevocationList revocationList) {
+        this.revocationList = revocationList;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new ExpireAtToken())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(Metrics.globalRegistry, cache, "jwt.authentication");
+    }
+
+    public UsernamePasswordAuthenticationToken get(String token) {
+        Entry entry = cache.get(token, JWTAuthenticationCache::verify);
+        if (entry == null || revocationList.isRevoked(entry.jti)) {
+            return null;
+        }
+        return new UsernamePasswordAuthenticationToken(entry.principal, null, entry.authorities);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private static Entry verify(String token) {
+        DecodedJWT jwt = VERIFIER.verify(token);
+        String usuario = jwt.getSubject();
+        if (usuario == null || jwt.getExpiresAt() == null) {
+            return null;
+        }
+        return new Entry(usuario, RoleAuthorities.of(jwt.getClaim(RoleAuthorities.CLAIM).asList(String.class)),
+                jwt.getId(), jwt.getExpiresAt().getTime());
+    }
+
+    private static final class Entry {
+        private final String principal;
+        private final List<GrantedAuthority> authorities;
+        private final String jti;
+        private final long expiresAt;
+
+        private Entry(String principal, List<GrantedAuthority> authorities, String jti, long expiresAt) {
+            this.principal = principal;
+            this.authorities = authorities;
+            this.jti = jti;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private static final class ExpireAtToken implements Expiry<String, Entry> {
+
+        @Override
+        public long expireAfterCreate(String token, Entry entry, long currentTime) {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, entry.expiresAt - System.currentTimeMillis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String token, Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -1,7 +1,5 @@
 package com.bootcamp.microservicemeetup.security;
 
-import com.auth0.jwt.JWT;
-import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTDecodeException;
 import com.auth0.jwt.exceptions.TokenExpiredException;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -14,15 +12,17 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.util.ArrayList;
 
 public class JWTValidationFilter extends BasicAuthenticationFilter {
 
     public static final String HEADER_ATRIBUTO = "Authorization";
     public static final String ATRIBUTO_PREFIXO = "Bearer ";
 
-    public JWTValidationFilter(AuthenticationManager authenticationManager) {
+    private final JWTAuthenticationCache authenticationCache;
+
+    public JWTValidationFilter(AuthenticationManager authenticationManager, JWTAuthenticationCache authenticationCache) {
         super(authenticationManager);
+        this.authenticationCache = authenticationCache;
     }
 
     @Override
@@ -34,7 +34,7 @@ public class JWTValidationFilter extends BasicAuthenticationFilter {
             return;
         }
 
-        String token = atributo.replace(ATRIBUTO_PREFIXO, "");
+        String token = atributo.substring(ATRIBUTO_PREFIXO.length());
         UsernamePasswordAuthenticationToken authenticationToken = getAuthenticationToken(token);
 
         SecurityContextHolder.getContext().setAuthentication(authenticationToken);
@@ -42,13 +42,6 @@ public class JWTValidationFilter extends BasicAuthenticationFilter {
     }
 
     private UsernamePasswordAuthenticationToken getAuthenticationToken(String token) {
-        String usuario = JWT.require(Algorithm.HMAC512(JWTAutenticationFilter.TOKEN_SENHA))
-                .build()
-                .verify(token)
-                .getSubject();
-        if (usuario == null) {
-            return null;
-        }
-        return new UsernamePasswordAuthenticationToken(usuario, null, new ArrayList<>());
+        return authenticationCache.get(token);
     }
 }
@@ -0,0 +1,65 @@
+package com.bootcamp.microservicemeetup.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket por chave (IP ou registration) para as tentativas de login.
+ * Cada bucket é um único {@link AtomicLong} com o instante teórico da próxima liberação (GCRA),
+ * então consumir ou recusar é só um CAS, sem lock. Chaves ociosas saem do cache sozinhas, e o
+ * tamanho máximo segura a memória quando alguém varre muitos IPs ou registrations.
+ */
+public class LoginRateLimiter {
+
+    private final long intervalNanos;
+
+    private final long burstNanos;
+
+    private final LongSupplier clock;
+
+    private final Cache<String, AtomicLong> buckets;
+
+    public LoginRateLimiter(int permitsPerMinute, int burst, Duration idle, long maximumSize) {
+        this(permitsPerMinute, burst, idle, maximumSize, System::nanoTime);
+    }
+
+    LoginRateLimiter(int permitsPerMinute, int burst, Duration idle, long maximumSize, LongSupplier clock) {
+        this.intervalNanos = TimeUnit.MINUTES.toNanos(1) / permitsPerMinute;
+        this.burstNanos = intervalNanos * burst;
+        this.clock = clock;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(idle)
+                .build();
+    }
+
+    public boolean tryAcquire(String key) {
+        AtomicLong bucket = buckets.get(key, k -> new AtomicLong(Long.MIN_VALUE));
+        while (true) {
+            long now = clock.getAsLong();
+            long tat = bucket.get();
+            long next = Math.max(tat, now) + intervalNanos;
+            if (next - now > burstNanos) {
+                return false;
+            }
+            if (bucket.compareAndSet(tat, next)) {
+                return true;
+            }
+        }
+    }
+
+    public long retryAfterSeconds(String key) {
+        AtomicLong bucket = buckets.getIfPresent(key);
+        if (bucket == null) {
+            return 0;
+        }
+        long wait = bucket.get() + intervalNanos - burstNanos - clock.getAsLong();
+        long second = TimeUnit.SECONDS.toNanos(1);
+        return Math.max(1, (wait + second - 1) / second);
+    }
+}
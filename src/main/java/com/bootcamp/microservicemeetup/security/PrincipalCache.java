@@ -0,0 +1,64 @@
+package com.bootcamp.microservicemeetup.security;
+
+import com.bootcamp.microservicemeetup.repository.RegistrationRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Cache limitado por tamanho e TTL dos principals usados no login.
+ * Quem altera ou apaga uma Registration precisa chamar {@link #invalidate(String)}.
+ */
+@Component
+public class PrincipalCache {
+
+    private final RegistrationRepository registrationRepository;
+
+    private final LoadingCache<String, AuthenticatedPrincipal> cache;
+
+    public PrincipalCache(RegistrationRepository registrationRepository,
+                          @Value("${security.principal.cache.max-size:10000}") long maximumSize,
+                          @Value("${security.principal.cache.ttl-seconds:600}") long ttlSeconds) {
+        this.registrationRepository = registrationRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build(this::load);
+        CaffeineCacheMetrics.monitor(Metrics.globalRegistry, cache, "security.principal");
+    }
+
+    public Optional<AuthenticatedPrincipal> get(String registration) {
+        return Optional.ofNullable(cache.get(registration));
+    }
+
+    public void invalidate(String registration) {
+        if (registration != null) {
+            cache.invalidate(registration);
+        }
+    }
+
+    private AuthenticatedPrincipal load(String registration) {
+        List<Object[]> rows = registrationRepository.findPrincipalRows(registration);
+        if (rows.isEmpty()) {
+            return null;
+        }
+        List<String> roles = new ArrayList<>();
+        for (Object[] row : rows) {
+            if (row[2] != null) {
+                roles.add((String) row[2]);
+            }
+        }
+        Object[] first = rows.get(0);
+        return new AuthenticatedPrincipal((String) first[0], (String) first[1], Collections.unmodifiableList(roles));
+    }
+}
@@ -0,0 +1,40 @@
+package com.bootcamp.microservicemeetup.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ * Uma única instância de {@link GrantedAuthority} por nome de role, reaproveitada
+ * pelo login e pela validação do token.
+ */
+public final class RoleAuthorities {
+
+    public static final String CLAIM = "roles";
+
+    private static final ConcurrentMap<String, GrantedAuthority> AUTHORITIES = new ConcurrentHashMap<>();
+
+    private RoleAuthorities() {
+    }
+
+    public static GrantedAuthority of(String role) {
+        return AUTHORITIES.computeIfAbsent(role, SimpleGrantedAuthority::new);
+    }
+
+    public static List<GrantedAuthority> of(Collection<String> roles) {
+        if (roles == null || roles.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return roles.stream().map(RoleAuthorities::of).collect(Collectors.toUnmodifiableList());
+    }
+
+    public static String[] names(Collection<? extends GrantedAuthority> authorities) {
+        return authorities.stream().map(GrantedAuthority::getAuthority).toArray(String[]::new);
+    }
+}
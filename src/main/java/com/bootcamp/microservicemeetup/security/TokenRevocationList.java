@@ -0,0 +1,43 @@
+package com.bootcamp.microservicemeetup.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conjunto em memória dos {@code jti} revogados. Cada entrada some sozinha no {@code exp} do token,
+ * porque depois disso o próprio verificador já recusa o token.
+ */
+@Component
+public class TokenRevocationList {
+
+    private final Cache<String, Long> revoked = Caffeine.newBuilder()
+            .expireAfter(new Expiry<String, Long>() {
+                @Override
+                public long expireAfterCreate(String jti, Long expiresAt, long currentTime) {
+                    return TimeUnit.MILLISECONDS.toNanos(Math.max(0, expiresAt - System.currentTimeMillis()));
+                }
+
+                @Override
+                public long expireAfterUpdate(String jti, Long expiresAt, long currentTime, long currentDuration) {
+                    return expireAfterCreate(jti, expiresAt, currentTime);
+                }
+
+                @Override
+                public long expireAfterRead(String jti, Long expiresAt, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
+
+    public void revoke(String jti, long expiresAt) {
+        revoked.put(jti, expiresAt);
+    }
+
+    public boolean isRevoked(String jti) {
+        return jti != null && revoked.getIfPresent(jti) != null;
+    }
+}
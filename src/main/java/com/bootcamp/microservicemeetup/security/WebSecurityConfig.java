@@ -1,6 +1,9 @@
 package com.bootcamp.microservicemeetup.security;
 
+import com.bootcamp.microservicemeetup.service.TokenService;
+import io.micrometer.core.instrument.Metrics;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -14,6 +17,7 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 
+import java.time.Duration;
 import java.util.Properties;
 
 @Configuration
@@ -22,9 +26,64 @@ public class WebSecurityConfig extends WebSecurityConfigurerAdapter {
     @Autowired
     private UserDetailServiceImpl userDetailService;
 
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    @Value("${security.jwt.cache.max-size:10000}")
+    private long jwtCacheMaximumSize;
+
+    @Value("${security.password.hashing.threads:0}")
+    private int passwordHashingThreads;
+
+    @Value("${security.password.hashing.queue-capacity:64}")
+    private int passwordHashingQueueCapacity;
+
+    @Value("${security.password.hashing.retry-after-seconds:1}")
+    private long passwordHashingRetryAfterSeconds;
+
+    @Value("${security.login.rate-limit.ip.per-minute:60}")
+    private int loginIpPermitsPerMinute;
+
+    @Value("${security.login.rate-limit.ip.burst:20}")
+    private int loginIpBurst;
+
+    @Value("${security.login.rate-limit.registration.per-minute:10}")
+    private int loginRegistrationPermitsPerMinute;
+
+    @Value("${security.login.rate-limit.registration.burst:5}")
+    private int loginRegistrationBurst;
+
+    @Value("${security.login.rate-limit.idle-minutes:10}")
+    private long loginRateLimitIdleMinutes;
+
+    @Value("${security.login.rate-limit.max-size:100000}")
+    private long loginRateLimitMaximumSize;
+
     @Bean
     PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        int threads = passwordHashingThreads > 0 ? passwordHashingThreads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), threads, passwordHashingQueueCapacity,
+                passwordHashingRetryAfterSeconds, Metrics.globalRegistry);
+    }
+
+    @Bean
+    JWTAuthenticationCache jwtAuthenticationCache() {
+        return new JWTAuthenticationCache(jwtCacheMaximumSize, tokenRevocationList);
+    }
+
+    @Bean
+    LoginRateLimiter loginIpRateLimiter() {
+        return new LoginRateLimiter(loginIpPermitsPerMinute, loginIpBurst, Duration.ofMinutes(loginRateLimitIdleMinutes),
+                loginRateLimitMaximumSize);
+    }
+
+    @Bean
+    LoginRateLimiter loginRegistrationRateLimiter() {
+        return new LoginRateLimiter(loginRegistrationPermitsPerMinute, loginRegistrationBurst,
+                Duration.ofMinutes(loginRateLimitIdleMinutes), loginRateLimitMaximumSize);
     }
 
     @Override
@@ -37,10 +96,12 @@ public class WebSecurityConfig extends WebSecurityConfigurerAdapter {
                 .antMatchers("/swagger-resources/**").permitAll()
                 .antMatchers( "/webjars/springfox-swagger-ui/**").permitAll()
                 .antMatchers(HttpMethod.POST, "/api/registrations").permitAll()
+                .antMatchers(HttpMethod.POST, "/api/auth/refresh").permitAll()
                 .anyRequest().authenticated()
                 .and()
-                .addFilter(new JWTAutenticationFilter(authenticationManager()))
-                .addFilter(new JWTValidationFilter(authenticationManager()))
+                .addFilter(new JWTAutenticationFilter(authenticationManager(), tokenService,
+                        loginIpRateLimiter(), loginRegistrationRateLimiter()))
+                .addFilter(new JWTValidationFilter(authenticationManager(), jwtAuthenticationCache()))
                 .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS);
         http.csrf().disable();
     }
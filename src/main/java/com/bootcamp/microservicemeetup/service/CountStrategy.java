@@ -0,0 +1,16 @@
+package com.bootcamp.microservicemeetup.service;
+
+/**
+ * Como o total de uma listagem paginada é obtido.
+ * <ul>
+ *     <li>EXACT: {@code COUNT(*)} a cada chamada, como sempre foi;</li>
+ *     <li>CACHED: {@code COUNT(*)} guardado por filtro por alguns segundos e descartado a cada escrita;</li>
+ *     <li>ESTIMATED: nunca conta; usa o último total conhecido ou, sem ele, só um limite inferior
+ *     (os itens até esta página, mais um se há próxima), sempre com {@code totalExact = false}.</li>
+ * </ul>
+ */
+public enum CountStrategy {
+    EXACT,
+    CACHED,
+    ESTIMATED
+}
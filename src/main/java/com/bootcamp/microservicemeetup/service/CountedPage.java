@@ -0,0 +1,26 @@
+package com.bootcamp.microservicemeetup.service;
+
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+public class CountedPage<T> extends PageImpl<T> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final boolean totalExact;
+
+    public CountedPage(List<T> content, Pageable pageable, long total, boolean totalExact) {
+        super(content, pageable, total);
+        this.totalExact = totalExact;
+    }
+
+    /**
+     * {@code false} quando o total veio do cache de uma contagem anterior ou, em
+     * {@link CountStrategy#ESTIMATED} sem total conhecido, é apenas um limite inferior.
+     */
+    public boolean isTotalExact() {
+        return totalExact;
+    }
+}
@@ -0,0 +1,29 @@
+package com.bootcamp.microservicemeetup.service;
+
+import com.bootcamp.microservicemeetup.model.entity.Meetup;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+public interface MeetupSearchIndex {
+
+    /**
+     * Ids das Meetups cujo evento contém {@code text}, sem diferenciar maiúsculas.
+     * Vazio quando o índice não consegue responder (ainda carregando, texto curto demais
+     * ou pouco seletivo) e a busca deve cair no {@code like}.
+     */
+    Optional<Set<Integer>> search(String text);
+
+    /**
+     * Até {@code limit} Meetups (só id e evento) cujo evento começa com {@code prefix}, em ordem
+     * alfabética. Vazio enquanto o índice carrega.
+     */
+    Optional<List<Meetup>> suggest(String prefix, int limit);
+
+    void index(Meetup meetup);
+
+    void remove(Integer id);
+
+    void rebuild();
+}
@@ -1,11 +1,12 @@
 package com.bootcamp.microservicemeetup.service;
 
-import com.bootcamp.microservicemeetup.controller.dto.MeetupFilterDTO;
+import com.bootcamp.microservicemeetup.model.RosterEntry;
 import com.bootcamp.microservicemeetup.model.entity.Meetup;
-import com.bootcamp.microservicemeetup.model.entity.Registration;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,7 +24,20 @@ public interface MeetupService {
 
     Page<Meetup> find(Meetup filter, Pageable pageable);
 
-    Page<Meetup> getRegistrationsByMeetup(Registration registration, Pageable pageable);
+    /**
+     * Como {@link #find(Meetup, Pageable)}, limitado aos dias entre {@code from} e {@code to} (inclusive, ambos opcionais).
+     * As registrations só são carregadas com {@code withRegistrations}.
+     */
+    CountedPage<Meetup> find(Meetup filter, LocalDate from, LocalDate to, Pageable pageable, CountStrategy countStrategy,
+                             boolean withRegistrations);
+
+    Slice<Meetup> scroll(Meetup filter, Integer afterId, int size, boolean withRegistrations);
+
+    List<Meetup> suggest(String prefix, int limit);
+
+    List<Meetup> subscribeTrack(Integer registrationId, List<Integer> meetupIds);
+
+    Page<RosterEntry> getRegistrationsByMeetup(Integer meetupId, Pageable pageable);
 
 
 }
@@ -0,0 +1,27 @@
+package com.bootcamp.microservicemeetup.service;
+
+import com.bootcamp.microservicemeetup.model.entity.Meetup;
+
+public enum MembershipOutcome {
+
+    JOINED("Registration inscrita na Meetup"),
+    ALREADY_JOINED("A Meetup já contém a registration informada!"),
+    DATE_CONFLICT("A Registration já está inscrita em outra meetup no dia %s"),
+    FULL("A Meetup está lotada!"),
+    NOT_FOUND("Registration não encontrada!");
+
+    private final String message;
+
+    MembershipOutcome(String message) {
+        this.message = message;
+    }
+
+    /** Mensagem dos resultados que não citam a Meetup, como NOT_FOUND. */
+    public String message() {
+        return message;
+    }
+
+    public String message(Meetup meetup) {
+        return String.format(message, meetup.getMeetupDate());
+    }
+}
@@ -0,0 +1,19 @@
+package com.bootcamp.microservicemeetup.service;
+
+import com.bootcamp.microservicemeetup.model.entity.Meetup;
+import com.bootcamp.microservicemeetup.model.entity.Registration;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface MembershipService {
+
+    Meetup join(Meetup meetup, Registration registration);
+
+    Map<Integer, MembershipOutcome> joinAll(Meetup meetup, Collection<Integer> registrationIds);
+
+    void joinTrack(Integer registrationId, List<Meetup> meetups);
+
+    Meetup leave(Meetup meetup, Registration registration);
+}
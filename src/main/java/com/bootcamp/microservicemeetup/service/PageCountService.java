@@ -0,0 +1,17 @@
+package com.bootcamp.microservicemeetup.service;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+import java.util.function.LongSupplier;
+
+public interface PageCountService {
+
+    String key(String type, Object... filterValues);
+
+    <T> CountedPage<T> exact(String key, Page<T> page);
+
+    <T> CountedPage<T> counted(String key, Slice<T> slice, CountStrategy strategy, LongSupplier count);
+
+    void invalidate(String type);
+}
@@ -0,0 +1,22 @@
+package com.bootcamp.microservicemeetup.service;
+
+import com.bootcamp.microservicemeetup.model.entity.Registration;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Optional;
+
+public interface RegistrationNameIndex {
+
+    /**
+     * Ids das inscrições em que cada palavra de {@code text} é prefixo de alguma palavra do nome,
+     * sem diferenciar maiúsculas nem acentos, em ordem alfabética da palavra encontrada.
+     * Vazio enquanto o índice carrega, e a busca deve cair no filtro por nome do banco.
+     */
+    Optional<CountedPage<Integer>> search(String text, Pageable pageable);
+
+    void index(Registration registration);
+
+    void remove(Integer id);
+
+    void rebuild();
+}
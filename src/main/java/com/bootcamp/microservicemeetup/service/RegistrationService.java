@@ -3,6 +3,7 @@ package com.bootcamp.microservicemeetup.service;
 import com.bootcamp.microservicemeetup.model.entity.Registration;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.util.Optional;
 
@@ -18,5 +19,11 @@ public interface RegistrationService {
 
     Page<Registration> find(Registration filter, Pageable pageRequest);
 
+    CountedPage<Registration> find(Registration filter, Pageable pageRequest, CountStrategy countStrategy);
+
+    Slice<Registration> scroll(Registration filter, Integer afterId, int size);
+
+    CountedPage<Registration> searchByName(String name, Pageable pageRequest);
+
     Optional<Registration> getRegistrationByRegistrationAttribute(String registrationAttribute);
 }
@@ -0,0 +1,14 @@
+package com.bootcamp.microservicemeetup.service;
+
+import com.bootcamp.microservicemeetup.model.entity.Meetup;
+
+public interface SeatReservationService {
+
+    boolean tryReserve(Meetup meetup);
+
+    void release(Integer meetupId);
+
+    void evict(Integer meetupId);
+
+    void reconcile();
+}
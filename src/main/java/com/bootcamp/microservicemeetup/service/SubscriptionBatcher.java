@@ -0,0 +1,232 @@
+package com.bootcamp.microservicemeetup.service;
+
+import com.bootcamp.microservicemeetup.model.entity.Meetup;
+import com.bootcamp.microservicemeetup.repository.MeetupRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Agrupa as inscrições de uma mesma Meetup: cada Meetup tem uma fila com no máximo um escritor por vez, que junta
+ * até {@code max-size} pedidos ou espera no máximo {@code window-ms} e grava o lote numa só transação
+ * via {@link MembershipService#joinAll}. Cada chamador recebe o resultado da sua própria inscrição.
+ * Os escritores vêm de um pool de {@code writers} threads; a fila de uma Meetup sai do mapa quando esvazia.
+ * O chamador espera no máximo {@code timeout-ms}; passado o prazo, ou com o pool recusando lotes, recebe 503.
+ */
+@Component
+public class SubscriptionBatcher {
+
+    private final ConcurrentMap<Integer, Lane> lanes = new ConcurrentHashMap<>();
+
+    private final AtomicInteger writerCount = new AtomicInteger();
+
+    private final ThreadPoolExecutor writers;
+
+    private MembershipService membershipService;
+
+    private MeetupRepository meetupRepository;
+
+    private boolean enabled;
+
+    private int maxSize;
+
+    private long windowNanos;
+
+    private long timeoutMillis;
+
+    public SubscriptionBatcher(MembershipService membershipService, MeetupRepository meetupRepository,
+                               @Value("${meetup.subscribe.batch.enabled:false}") boolean enabled,
+                               @Value("${meetup.subscribe.batch.max-size:100}") int maxSize,
+                               @Value("${meetup.subscribe.batch.window-ms:5}") long windowMillis,
+                               @Value("${meetup.subscribe.batch.writers:8}") int writers,
+                               @Value("${meetup.subscribe.batch.timeout-ms:5000}") long timeoutMillis) {
+        this.membershipService = membershipService;
+        this.meetupRepository = meetupRepository;
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.timeoutMillis = timeoutMillis;
+        this.writers = new ThreadPoolExecutor(writers, writers, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "subscription-batch-" + writerCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.writers.allowCoreThreadTimeOut(true);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public MembershipOutcome submit(Integer meetupId, Integer registrationId) {
+        Pending pending = new Pending(registrationId);
+        Lane lane = lanes.compute(meetupId, (id, current) -> {
+            Lane target = current != null ? current : new Lane();
+            target.queue.add(pending);
+            return target;
+        });
+        schedule(meetupId, lane);
+        try {
+            return pending.result.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // se o lote terminou junto com o prazo, vale o resultado dele; senão o pedido sai da fila
+            if (pending.result.cancel(false)) {
+                throw unavailable();
+            }
+            return pending.result.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pending.result.cancel(false);
+            throw unavailable();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Entrega a fila a um escritor, se ninguém a está gravando. Com o pool recusando (já desligado),
+     * a fila é liberada e os pedidos nela falham na hora em vez de esperar para sempre.
+     */
+    private void schedule(Integer meetupId, Lane lane) {
+        if (!lane.draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            writers.execute(() -> drain(meetupId, lane));
+        } catch (RejectedExecutionException e) {
+            lane.draining.set(false);
+            Pending pending;
+            while ((pending = lane.queue.poll()) != null) {
+                pending.result.completeExceptionally(unavailable());
+            }
+        }
+    }
+
+    private static ResponseStatusException unavailable() {
+        return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Inscrições indisponíveis no momento, tente novamente!");
+    }
+
+    /**
+     * Grava um lote e devolve a vez: se ainda há pedidos, a fila volta para o fim do pool em vez de
+     * prender um escritor, e se esvaziou ela sai do mapa.
+     */
+    private void drain(Integer meetupId, Lane lane) {
+        try {
+            flush(meetupId, nextBatch(lane.queue));
+        } finally {
+            lane.draining.set(false);
+        }
+        // um pedido pode ter entrado entre o último poll e a liberação da fila
+        if (!lane.queue.isEmpty()) {
+            schedule(meetupId, lane);
+            return;
+        }
+        lanes.computeIfPresent(meetupId, (id, current) ->
+                current == lane && lane.queue.isEmpty() && !lane.draining.get() ? null : current);
+    }
+
+    private List<Pending> nextBatch(BlockingQueue<Pending> queue) {
+        List<Pending> batch = new ArrayList<>();
+        Pending first = queue.poll();
+        if (first == null) {
+            return batch;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + windowNanos;
+        try {
+            while (batch.size() < maxSize) {
+                Pending next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (next == null) {
+                    break;
+                }
+                batch.add(next);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return batch;
+    }
+
+    private void flush(Integer meetupId, List<Pending> batch) {
+        // quem desistiu por prazo antes do lote sair não é gravado
+        batch.removeIf(pending -> pending.result.isCancelled());
+        if (batch.isEmpty()) {
+            return;
+        }
+        Meetup meetup;
+        try {
+            // relida a cada lote: capacidade e data podem ter mudado desde o primeiro pedido
+            meetup = meetupRepository.findById(meetupId)
+                    .orElseThrow(() -> new IllegalArgumentException("Meetup not found!"));
+        } catch (RuntimeException e) {
+            batch.forEach(pending -> pending.result.completeExceptionally(e));
+            return;
+        }
+        try {
+            List<Integer> ids = batch.stream().map(pending -> pending.registrationId).collect(Collectors.toList());
+            Map<Integer, MembershipOutcome> outcomes = membershipService.joinAll(meetup, ids);
+
+            Set<Integer> served = new HashSet<>();
+            for (Pending pending : batch) {
+                MembershipOutcome outcome = outcomes.get(pending.registrationId);
+                if (outcome == MembershipOutcome.JOINED && !served.add(pending.registrationId)) {
+                    outcome = MembershipOutcome.ALREADY_JOINED;
+                }
+                pending.result.complete(outcome);
+            }
+        } catch (RuntimeException e) {
+            // o lote inteiro voltou atrás; cada pedido é gravado sozinho para que só o problemático falhe
+            for (Pending pending : batch) {
+                try {
+                    pending.result.complete(membershipService.joinAll(meetup, List.of(pending.registrationId))
+                            .get(pending.registrationId));
+                } catch (RuntimeException single) {
+                    pending.result.completeExceptionally(single);
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writers.shutdown();
+    }
+
+    private static class Lane {
+        private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+    }
+
+    private static class Pending {
+        private final Integer registrationId;
+        private final CompletableFuture<MembershipOutcome> result = new CompletableFuture<>();
+
+        private Pending(Integer registrationId) {
+            this.registrationId = registrationId;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.bootcamp.microservicemeetup.service;
+
+import com.bootcamp.microservicemeetup.controller.dto.TokenDTO;
+
+import java.util.Collection;
+
+public interface TokenService {
+
+    TokenDTO issue(String registration, Collection<String> roles);
+
+    TokenDTO refresh(String refreshToken);
+
+    void revoke(String accessToken);
+
+    void revokeRefreshTokens(String registration);
+}
@@ -0,0 +1,24 @@
+package com.bootcamp.microservicemeetup.service.impl;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Forma comparável de um texto para os índices em memória: sem acentos e em minúsculas,
+ * então "Café" e "cafe" caem nas mesmas chaves.
+ */
+final class Folding {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private Folding() {
+    }
+
+    static String fold(String text) {
+        if (text == null) {
+            return null;
+        }
+        return MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,184 @@
+package com.bootcamp.microservicemeetup.service.impl;
+
+import com.bootcamp.microservicemeetup.model.entity.Meetup;
+import com.bootcamp.microservicemeetup.repository.MeetupRepository;
+import com.bootcamp.microservicemeetup.service.MeetupSearchIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Índice invertido de trigramas sobre {@code Meetup.event}. Um {@code like '%x%'} não usa índice
+ * B-tree; aqui os trigramas do texto buscado dão os candidatos e o evento guardado confirma o
+ * {@code contains}, então o banco só recebe {@code id in (...)}. Eventos e buscas são comparados
+ * sem acentos e em minúsculas, como no índice de nomes.
+ * <p>
+ * Cada trigrama guarda seus ids num {@code int[]} ordenado, sem um objeto por id, e só é lido ou
+ * alterado sob o lock do índice; a busca copia a menor lista e confere os eventos fora dele.
+ * <p>
+ * Os nomes também ficam ordenados ({@code evento\0id}) para o autocompletar, que lê só os
+ * primeiros itens da faixa do prefixo.
+ */
+@Service
+public class MeetupSearchIndexImpl implements MeetupSearchIndex {
+
+    private static final int GRAM = 3;
+
+    private final Map<String, Postings> postings = new HashMap<>();
+
+    private final Map<Integer, String> events = new ConcurrentHashMap<>();
+
+    private final ConcurrentSkipListMap<String, Meetup> names = new ConcurrentSkipListMap<>();
+
+    private volatile boolean ready;
+
+    private MeetupRepository repository;
+
+    private int maxResults;
+
+    private int batchSize;
+
+    public MeetupSearchIndexImpl(MeetupRepository repository,
+                                 @Value("${meetup.search.index.max-results:1000}") int maxResults,
+                                 @Value("${meetup.search.index.batch-size:5000}") int batchSize) {
+        this.repository = repository;
+        this.maxResults = maxResults;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public Optional<Set<Integer>> search(String text) {
+        String normalized = normalize(text);
+        if (!ready || normalized == null || normalized.length() < GRAM) {
+            return Optional.empty();
+        }
+
+        Set<Integer> found = new HashSet<>();
+        for (int id : candidates(normalized)) {
+            String event = events.get(id);
+            if (event != null && event.contains(normalized)) {
+                found.add(id);
+                if (found.size() > maxResults) {
+                    return Optional.empty();
+                }
+            }
+        }
+        return Optional.of(found);
+    }
+
+    @Override
+    public Optional<List<Meetup>> suggest(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (!ready || normalized == null) {
+            return Optional.empty();
+        }
+        List<Meetup> found = new ArrayList<>(limit);
+        for (Meetup meetup : names.subMap(normalized, true, normalized + Character.MAX_VALUE, true).values()) {
+            if (found.size() == limit) {
+                break;
+            }
+            found.add(meetup);
+        }
+        return Optional.of(found);
+    }
+
+    @Override
+    public synchronized void index(Meetup meetup) {
+        if (meetup == null || meetup.getId() == null) {
+            return;
+        }
+        String event = normalize(meetup.getEvent());
+        String previous = event == null ? events.remove(meetup.getId()) : events.put(meetup.getId(), event);
+        if (previous != null) {
+            unlink(meetup.getId(), previous);
+        }
+        if (event != null) {
+            link(meetup.getId(), event, meetup.getEvent());
+        }
+    }
+
+    @Override
+    public synchronized void remove(Integer id) {
+        String previous = events.remove(id);
+        if (previous != null) {
+            unlink(id, previous);
+        }
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        ready = false;
+        Integer afterId = 0;
+        List<Object[]> rows;
+        do {
+            rows = repository.findEventsAfter(afterId, PageRequest.of(0, batchSize));
+            for (Object[] row : rows) {
+                Integer id = (Integer) row[0];
+                // escritas feitas durante a carga já indexaram a versão mais nova
+                synchronized (this) {
+                    String event = normalize((String) row[1]);
+                    if (event != null && events.putIfAbsent(id, event) == null) {
+                        link(id, event, (String) row[1]);
+                    }
+                }
+                afterId = id;
+            }
+        } while (rows.size() == batchSize);
+        ready = true;
+    }
+
+    private synchronized int[] candidates(String normalized) {
+        Postings smallest = null;
+        for (String gram : grams(normalized)) {
+            Postings ids = postings.get(gram);
+            if (ids == null) {
+                return new int[0];
+            }
+            if (smallest == null || ids.size < smallest.size) {
+                smallest = ids;
+            }
+        }
+        return Arrays.copyOf(smallest.ids, smallest.size);
+    }
+
+    private void link(Integer id, String event, String original) {
+        for (String gram : grams(event)) {
+            postings.computeIfAbsent(gram, key -> new Postings()).add(id);
+        }
+        names.put(event + '\0' + id, Meetup.builder().id(id).event(original).build());
+    }
+
+    private void unlink(Integer id, String event) {
+        names.remove(event + '\0' + id);
+        for (String gram : grams(event)) {
+            postings.computeIfPresent(gram, (key, ids) -> ids.remove(id) ? ids : null);
+        }
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static String normalize(String text) {
+        return Folding.fold(text);
+    }
+}
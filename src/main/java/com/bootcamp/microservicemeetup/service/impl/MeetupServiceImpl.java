@@ -1,21 +1,39 @@
 package com.bootcamp.microservicemeetup.service.impl;
 
-import com.bootcamp.microservicemeetup.controller.dto.MeetupFilterDTO;
 import com.bootcamp.microservicemeetup.exception.BusinessException;
+import com.bootcamp.microservicemeetup.model.MeetupDates;
+import com.bootcamp.microservicemeetup.model.RosterEntry;
 import com.bootcamp.microservicemeetup.model.entity.Meetup;
-import com.bootcamp.microservicemeetup.model.entity.Registration;
 import com.bootcamp.microservicemeetup.repository.MeetupRepository;
+import com.bootcamp.microservicemeetup.repository.specification.MeetupSpecifications;
+import com.bootcamp.microservicemeetup.service.CountStrategy;
+import com.bootcamp.microservicemeetup.service.CountedPage;
+import com.bootcamp.microservicemeetup.service.MeetupSearchIndex;
 import com.bootcamp.microservicemeetup.service.MeetupService;
+import com.bootcamp.microservicemeetup.service.MembershipService;
+import com.bootcamp.microservicemeetup.service.PageCountService;
+import com.bootcamp.microservicemeetup.service.SeatReservationService;
 import org.hibernate.ObjectNotFoundException;
-import org.springframework.data.domain.Example;
-import org.springframework.data.domain.ExampleMatcher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import javax.management.AttributeNotFoundException;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class MeetupServiceImpl implements MeetupService {
@@ -23,24 +41,115 @@ public class MeetupServiceImpl implements MeetupService {
 
     private MeetupRepository repository;
 
-    public MeetupServiceImpl(MeetupRepository repository) {
+    private SeatReservationService seatReservationService;
+
+    private MembershipService membershipService;
+
+    private PageCountService pageCountService;
+
+    private MeetupSearchIndex searchIndex;
+
+    private static final String COUNT_KEY = "meetups";
+
+    public MeetupServiceImpl(MeetupRepository repository, SeatReservationService seatReservationService,
+                             MembershipService membershipService, PageCountService pageCountService,
+                             MeetupSearchIndex searchIndex) {
         this.repository = repository;
+        this.seatReservationService = seatReservationService;
+        this.membershipService = membershipService;
+        this.pageCountService = pageCountService;
+        this.searchIndex = searchIndex;
     }
 
     @Override
-    public Meetup save(Meetup meetup) {return repository.save(meetup);}
+    public Meetup save(Meetup meetup) {
+        requireValidDate(meetup);
+        Meetup saved = repository.save(meetup);
+        searchIndex.index(saved);
+        pageCountService.invalidate(COUNT_KEY);
+        return saved;
+    }
 
     @Override
     public Page<Meetup> find(Meetup filter, Pageable pageRequest) {
+        return withRegistrations(repository.findAll(specification(filter), pageRequest));
+    }
+
+    @Override
+    public CountedPage<Meetup> find(Meetup filter, LocalDate from, LocalDate to, Pageable pageRequest,
+                                    CountStrategy countStrategy, boolean withRegistrations) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new BusinessException("A data inicial deve ser anterior ou igual à final!");
+        }
+        Specification<Meetup> specification = specification(filter).and(MeetupSpecifications.between(from, to));
+        String key = pageCountService.key(COUNT_KEY,
+                filter.getId(), filter.getEvent(), filter.getMeetupDate(), filter.getCapacity(), from, to);
+        if (countStrategy == CountStrategy.EXACT) {
+            Page<Meetup> page = repository.findAll(specification, pageRequest);
+            return pageCountService.exact(key, withRegistrations ? withRegistrations(page) : page);
+        }
+        Slice<Meetup> slice = repository.findSlice(Meetup.class, specification, pageRequest);
+        return pageCountService.counted(key, withRegistrations ? withRegistrations(slice) : slice,
+                countStrategy, () -> repository.count(specification));
+    }
+
+    @Override
+    public Slice<Meetup> scroll(Meetup filter, Integer afterId, int size, boolean withRegistrations) {
+        Slice<Meetup> slice = repository.scroll(Meetup.class, specification(filter), afterId, size);
+        return withRegistrations ? withRegistrations(slice) : slice;
+    }
+
+    @Override
+    public List<Meetup> suggest(String prefix, int limit) {
+        return searchIndex.suggest(prefix, limit)
+                .orElseGet(() -> repository.findByEventStartingWithIgnoreCaseOrderByEventAscIdAsc(prefix, PageRequest.of(0, limit)));
+    }
+
+    /**
+     * Ids que satisfazem o filtro de evento segundo o índice de trigramas,
+     * ou {@code null} para a busca seguir pelo {@code like}.
+     */
+    private Collection<Integer> indexed(Meetup filter) {
+        if (filter.getEvent() == null) {
+            return null;
+        }
+        return searchIndex.search(filter.getEvent()).orElse(null);
+    }
+
+    /**
+     * Carrega as registrations de todas as Meetups da página numa única consulta por ids,
+     * em vez de uma consulta por Meetup ao montar os DTOs.
+     */
+    private <S extends Slice<Meetup>> S withRegistrations(S slice) {
+        List<Meetup> meetups = slice.getContent();
+        if (meetups.isEmpty()) {
+            return slice;
+        }
+        Map<Integer, Meetup> loaded = repository
+                .findWithRegistrationsByIdIn(meetups.stream().map(Meetup::getId).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(Meetup::getId, Function.identity()));
+        for (Meetup meetup : meetups) {
+            // no mesmo contexto de persistência é a mesma instância; fora dele, copia a coleção já carregada
+            Meetup withRegistrations = loaded.get(meetup.getId());
+            if (withRegistrations != null && withRegistrations != meetup) {
+                meetup.setRegistrations(withRegistrations.getRegistrations());
+            }
+        }
+        return slice;
+    }
 
-        Example<Meetup> example = Example.of(filter,
-                ExampleMatcher
-                        .matching()
-                        .withIgnoreCase()
-                        .withIgnoreNullValues()
-                        .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING));
+    private void requireValidDate(Meetup meetup) {
+        if (MeetupDates.parse(meetup.getMeetupDate()) == null) {
+            throw new BusinessException("Data da Meetup inválida! Use dd/MM/aaaa, dd-MM-aaaa ou aaaa-MM-dd.");
+        }
+    }
 
-        return repository.findAll(example, pageRequest);
+    private Specification<Meetup> specification(Meetup filter) {
+        Collection<Integer> ids = indexed(filter);
+        Specification<Meetup> specification = MeetupSpecifications.of(filter);
+        // o contains fica junto do id in: com o índice defasado o resultado só encolhe, nunca traz outro evento
+        return ids == null ? specification : specification.and(MeetupSpecifications.idIn(ids));
     }
 
     @Override
@@ -62,7 +171,11 @@ public class MeetupServiceImpl implements MeetupService {
         if(!original_meetup.isPresent()){
             throw new IllegalArgumentException("Meetup not found!");
         }
-        return this.repository.save(meetup);
+        requireValidDate(meetup);
+        Meetup updated = this.repository.save(meetup);
+        searchIndex.index(updated);
+        pageCountService.invalidate(COUNT_KEY);
+        return updated;
     }
 
     @Override
@@ -76,24 +189,50 @@ public class MeetupServiceImpl implements MeetupService {
             throw new BusinessException("Meetup already has registrations! Please, unregister first.");
         }
         this.repository.delete(meetup.get());
+        seatReservationService.evict(id);
+        searchIndex.remove(id);
+        pageCountService.invalidate(COUNT_KEY);
     }
 
 
     @Override
-    public Page<Meetup> getRegistrationsByMeetup(Registration registration, Pageable pageable) {
-        return null;
-    }
+    @Transactional
+    public List<Meetup> subscribeTrack(Integer registrationId, List<Integer> meetupIds) {
+        if (meetupIds == null || meetupIds.isEmpty()) {
+            throw new BusinessException("A trilha precisa de pelo menos uma Meetup!");
+        }
+        if (meetupIds.stream().anyMatch(Objects::isNull)) {
+            throw new BusinessException("Informe o id de todas as Meetups da trilha!");
+        }
+        // bloqueia as Meetups sempre na ordem dos ids para duas trilhas concorrentes não entrarem em deadlock
+        TreeSet<Integer> ids = new TreeSet<>(meetupIds);
+        List<Meetup> meetups = repository.findAllForUpdate(ids);
+        if (meetups.size() != ids.size()) {
+            throw new IllegalArgumentException("Meetup not found!");
+        }
 
- /*   @Override
-    public Page<Meetup> find(MeetupFilterDTO filterDTO, Pageable pageable) {
-        return repository.findByRegistrationOnMeetup( filterDTO.getRegistration(), filterDTO.getEvent(), pageable );
-    }
+        // Meetups antigas sem dia reconhecível entram pela data textual, como antes da coluna meetup_day
+        Map<Object, Meetup> byDay = new HashMap<>();
+        for (Meetup meetup : meetups) {
+            Object day = meetup.getMeetupDay() != null ? meetup.getMeetupDay() : meetup.getMeetupDate();
+            if (day != null && byDay.putIfAbsent(day, meetup) != null) {
+                throw new BusinessException("A trilha tem mais de uma Meetup no dia " + meetup.getMeetupDate());
+            }
+        }
 
+        membershipService.joinTrack(registrationId, meetups);
+        return meetups;
+    }
 
     @Override
-    public Page<Meetup> getRegistrationsByMeetup(Registration registration, Pageable pageable) {
-        return repository.findByRegistration(registration, pageable);
+    public Page<RosterEntry> getRegistrationsByMeetup(Integer meetupId, Pageable pageable) {
+        if (!repository.existsById(meetupId)) {
+            throw new IllegalArgumentException("Meetup not found!");
+        }
+        // sem ordem explícita o offset não é estável entre páginas
+        Pageable byId = pageable.isPaged() && pageable.getSort().isUnsorted()
+                ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by("id"))
+                : pageable;
+        return repository.findRoster(meetupId, byId);
     }
-*/
-
 }
\ No newline at end of file
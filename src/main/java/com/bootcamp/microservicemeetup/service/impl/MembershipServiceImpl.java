@@ -0,0 +1,218 @@
+package com.bootcamp.microservicemeetup.service.impl;
+
+import com.bootcamp.microservicemeetup.exception.BusinessException;
+import com.bootcamp.microservicemeetup.model.entity.Meetup;
+import com.bootcamp.microservicemeetup.model.entity.Registration;
+import com.bootcamp.microservicemeetup.repository.RegistrationRepository;
+import com.bootcamp.microservicemeetup.service.MembershipOutcome;
+import com.bootcamp.microservicemeetup.service.MembershipService;
+import com.bootcamp.microservicemeetup.service.SeatReservationService;
+import org.hibernate.Hibernate;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+public class MembershipServiceImpl implements MembershipService {
+
+    private RegistrationRepository registrationRepository;
+
+    private SeatReservationService seatReservationService;
+
+    public MembershipServiceImpl(RegistrationRepository registrationRepository, SeatReservationService seatReservationService) {
+        this.registrationRepository = registrationRepository;
+        this.seatReservationService = seatReservationService;
+    }
+
+    @Override
+    @Transactional
+    public Meetup join(Meetup meetup, Registration registration) {
+        validate(meetup, registration);
+
+        // o lugar volta sozinho se a transação não for confirmada, inclusive por falha no commit
+        if (!seatReservationService.tryReserve(meetup)) {
+            throw new BusinessException(MembershipOutcome.FULL.message(meetup));
+        }
+        if (registrationRepository.existsByIdAndMeetups_Id(registration.getId(), meetup.getId())) {
+            throw new BusinessException(MembershipOutcome.ALREADY_JOINED.message(meetup));
+        }
+        if (hasMeetupSameDay(registration.getId(), meetup)) {
+            throw new BusinessException(MembershipOutcome.DATE_CONFLICT.message(meetup));
+        }
+        registrationRepository.insertMembership(registration.getId(), meetup.getId());
+
+        // registrations_meetups pertence a Registration: só o lado inverso (Meetup) é sincronizado em memória,
+        // e apenas se já estiver carregado. Se estiver lazy, a próxima leitura já traz a nova linha.
+        if (isLoaded(meetup)) {
+            meetup.getRegistrations().add(registration);
+        }
+        return meetup;
+    }
+
+    @Override
+    @Transactional
+    public Map<Integer, MembershipOutcome> joinAll(Meetup meetup, Collection<Integer> registrationIds) {
+        if (meetup == null || meetup.getId() == null) {
+            throw new IllegalArgumentException("Meetup id cannot be null!");
+        }
+        Set<Integer> ids = new LinkedHashSet<>(registrationIds);
+        Map<Integer, MembershipOutcome> outcomes = new LinkedHashMap<>();
+        if (ids.isEmpty()) {
+            return outcomes;
+        }
+
+        Set<Integer> existing = new HashSet<>(registrationRepository.findIdsByIdIn(ids));
+        Set<Integer> members = new HashSet<>(registrationRepository.findMemberIds(meetup.getId(), ids));
+        Set<Integer> busy = new HashSet<>(findIdsWithMeetupSameDay(meetup, ids));
+
+        List<Integer> accepted = new ArrayList<>();
+        for (Integer id : ids) {
+            if (!existing.contains(id)) {
+                outcomes.put(id, MembershipOutcome.NOT_FOUND);
+            } else if (members.contains(id)) {
+                outcomes.put(id, MembershipOutcome.ALREADY_JOINED);
+            } else if (busy.contains(id)) {
+                outcomes.put(id, MembershipOutcome.DATE_CONFLICT);
+            } else if (!seatReservationService.tryReserve(meetup)) {
+                outcomes.put(id, MembershipOutcome.FULL);
+            } else {
+                accepted.add(id);
+                outcomes.put(id, MembershipOutcome.JOINED);
+            }
+        }
+
+        if (!accepted.isEmpty()) {
+            insertMemberships(meetup, accepted, outcomes);
+        }
+        return outcomes;
+    }
+
+    /**
+     * Grava o lote; se uma inscrição concorrente gravou alguma das linhas entre a checagem e o insert,
+     * o lote volta inteiro e as linhas são gravadas uma a uma: a repetida sai como ALREADY_JOINED e devolve o lugar.
+     */
+    private void insertMemberships(Meetup meetup, List<Integer> accepted, Map<Integer, MembershipOutcome> outcomes) {
+        try {
+            registrationRepository.insertMemberships(meetup.getId(), accepted);
+            return;
+        } catch (DataIntegrityViolationException e) {
+            if (accepted.size() == 1) {
+                alreadyJoined(meetup, accepted.get(0), outcomes);
+                return;
+            }
+        }
+        for (Integer id : accepted) {
+            try {
+                registrationRepository.insertMemberships(meetup.getId(), List.of(id));
+            } catch (DataIntegrityViolationException e) {
+                alreadyJoined(meetup, id, outcomes);
+            }
+        }
+    }
+
+    private void alreadyJoined(Meetup meetup, Integer registrationId, Map<Integer, MembershipOutcome> outcomes) {
+        outcomes.put(registrationId, MembershipOutcome.ALREADY_JOINED);
+        seatReservationService.release(meetup.getId());
+    }
+
+    @Override
+    @Transactional
+    public void joinTrack(Integer registrationId, List<Meetup> meetups) {
+        if (registrationId == null) {
+            throw new IllegalArgumentException("Registration id cannot be null");
+        }
+        if (meetups == null || meetups.isEmpty()) {
+            throw new BusinessException("A trilha precisa de pelo menos uma Meetup!");
+        }
+        if (!registrationRepository.existsById(registrationId)) {
+            throw new IllegalArgumentException(MembershipOutcome.NOT_FOUND.message());
+        }
+
+        List<Integer> meetupIds = new ArrayList<>();
+        Set<LocalDate> days = new HashSet<>();
+        Set<String> dates = new HashSet<>();
+        for (Meetup meetup : meetups) {
+            meetupIds.add(meetup.getId());
+            days.add(meetup.getMeetupDay());
+            dates.add(meetup.getMeetupDate());
+        }
+
+        List<Meetup> conflicts = registrationRepository.findAgendaConflicts(registrationId, meetupIds, days, dates);
+        for (Meetup meetup : meetups) {
+            for (Meetup conflict : conflicts) {
+                if (conflict.getId().equals(meetup.getId())) {
+                    throw new BusinessException(MembershipOutcome.ALREADY_JOINED.message(meetup));
+                }
+                if (meetup.sameDayAs(conflict)) {
+                    throw new BusinessException(MembershipOutcome.DATE_CONFLICT.message(meetup));
+                }
+            }
+        }
+
+        for (Meetup meetup : meetups) {
+            if (!seatReservationService.tryReserve(meetup)) {
+                throw new BusinessException(MembershipOutcome.FULL.message(meetup));
+            }
+        }
+        registrationRepository.insertRegistrationMeetups(registrationId, meetupIds);
+    }
+
+    @Override
+    @Transactional
+    public Meetup leave(Meetup meetup, Registration registration) {
+        validate(meetup, registration);
+
+        if (registrationRepository.deleteMembership(registration.getId(), meetup.getId()) > 0) {
+            seatReservationService.release(meetup.getId());
+        }
+
+        if (isLoaded(meetup)) {
+            meetup.getRegistrations().removeIf(r -> registration.getId().equals(r.getId()));
+        }
+        return meetup;
+    }
+
+    /**
+     * Meetups antigas com data fora dos formatos não têm dia: para elas vale a data textual igual,
+     * como antes da coluna {@code meetup_day} (um dia nulo viraria "is null" na consulta derivada).
+     */
+    private boolean hasMeetupSameDay(Integer registrationId, Meetup meetup) {
+        if (meetup.getMeetupDay() != null) {
+            return registrationRepository.existsByIdAndMeetups_MeetupDay(registrationId, meetup.getMeetupDay());
+        }
+        return meetup.getMeetupDate() != null
+                && registrationRepository.existsByIdAndMeetups_MeetupDate(registrationId, meetup.getMeetupDate());
+    }
+
+    private List<Integer> findIdsWithMeetupSameDay(Meetup meetup, Collection<Integer> ids) {
+        if (meetup.getMeetupDay() != null) {
+            return registrationRepository.findIdsWithMeetupOn(meetup.getMeetupDay(), ids);
+        }
+        return meetup.getMeetupDate() != null
+                ? registrationRepository.findIdsWithMeetupDate(meetup.getMeetupDate(), ids)
+                : List.of();
+    }
+
+    private boolean isLoaded(Meetup meetup) {
+        return meetup.getRegistrations() != null && Hibernate.isInitialized(meetup.getRegistrations());
+    }
+
+    private void validate(Meetup meetup, Registration registration) {
+        if (meetup == null || meetup.getId() == null) {
+            throw new IllegalArgumentException("Meetup id cannot be null!");
+        }
+        if (registration == null || registration.getId() == null) {
+            throw new IllegalArgumentException("Registration id cannot be null");
+        }
+    }
+}
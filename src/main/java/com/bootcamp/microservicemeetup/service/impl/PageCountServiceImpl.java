@@ -0,0 +1,118 @@
+package com.bootcamp.microservicemeetup.service.impl;
+
+import com.bootcamp.microservicemeetup.service.CountStrategy;
+import com.bootcamp.microservicemeetup.service.CountedPage;
+import com.bootcamp.microservicemeetup.service.PageCountService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Guarda os totais das listagens por filtro normalizado (tipo + valores em minúsculas),
+ * por um TTL curto. Cada total leva a versão do tipo em que foi contado; qualquer escrita no tipo
+ * avança a versão, e os totais antigos deixam de valer (inclusive um COUNT que começou antes da
+ * escrita e termina depois) até saírem do cache pelo TTL ou pelo tamanho.
+ */
+@Service
+public class PageCountServiceImpl implements PageCountService {
+
+    private final Cache<String, Total> totals;
+
+    private final ConcurrentMap<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    public PageCountServiceImpl(@Value("${listing.count.cache.ttl-seconds:30}") long ttlSeconds,
+                                @Value("${listing.count.cache.max-size:10000}") long maximumSize) {
+        this.totals = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maximumSize)
+                .build();
+    }
+
+    @Override
+    public String key(String type, Object... filterValues) {
+        StringJoiner key = new StringJoiner("|", type + ":", "");
+        for (Object value : filterValues) {
+            key.add(value == null ? "" : value.toString().trim().toLowerCase(Locale.ROOT));
+        }
+        return key.toString();
+    }
+
+    @Override
+    public <T> CountedPage<T> exact(String key, Page<T> page) {
+        remember(key, version(key), page.getTotalElements());
+        return new CountedPage<>(page.getContent(), page.getPageable(), page.getTotalElements(), true);
+    }
+
+    @Override
+    public <T> CountedPage<T> counted(String key, Slice<T> slice, CountStrategy strategy, LongSupplier count) {
+        long version = version(key);
+        long offset = slice.getPageable().isPaged() ? slice.getPageable().getOffset() : 0;
+        long seen = offset + slice.getNumberOfElements();
+
+        // última página com conteúdo (ou primeira vazia): o total sai da própria página
+        if (!slice.hasNext() && (slice.hasContent() || offset == 0)) {
+            remember(key, version, seen);
+            return new CountedPage<>(slice.getContent(), slice.getPageable(), seen, true);
+        }
+
+        Long known = known(key, version);
+        if (strategy == CountStrategy.ESTIMATED) {
+            // página além do fim: o offset é só um teto, então sem total em cache ele sai marcado como estimado
+            if (!slice.hasContent()) {
+                return new CountedPage<>(slice.getContent(), slice.getPageable(), known == null ? offset : known, false);
+            }
+            // sem total conhecido não há estimativa de verdade, só o limite inferior que a página garante
+            long lowerBound = slice.hasNext() ? seen + 1 : seen;
+            long total = known == null ? lowerBound : Math.max(known, lowerBound);
+            return new CountedPage<>(slice.getContent(), slice.getPageable(), total, false);
+        }
+        if (known != null) {
+            return new CountedPage<>(slice.getContent(), slice.getPageable(), known, false);
+        }
+        long total = count.getAsLong();
+        remember(key, version, total);
+        return new CountedPage<>(slice.getContent(), slice.getPageable(), total, true);
+    }
+
+    @Override
+    public void invalidate(String type) {
+        versions.computeIfAbsent(type, t -> new AtomicLong()).incrementAndGet();
+    }
+
+    private long version(String key) {
+        String type = key.substring(0, key.indexOf(':'));
+        return versions.computeIfAbsent(type, t -> new AtomicLong()).get();
+    }
+
+    private Long known(String key, long version) {
+        Total total = totals.getIfPresent(key);
+        return total == null || total.version != version ? null : total.value;
+    }
+
+    private void remember(String key, long version, long value) {
+        totals.put(key, new Total(version, value));
+    }
+
+    private static final class Total {
+
+        private final long version;
+
+        private final long value;
+
+        private Total(long version, long value) {
+            this.version = version;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.bootcamp.microservicemeetup.service.impl;
+
+import java.util.Arrays;
+
+/**
+ * Lista ordenada de ids de um termo dos índices em memória, num {@code int[]} sem um objeto por id.
+ * Não é thread-safe: quem a usa guarda cada lista sob o próprio lock.
+ */
+final class Postings {
+
+    int[] ids = new int[4];
+
+    int size;
+
+    void add(int id) {
+        // os ids crescem, então quase sempre é um append
+        int at = size == 0 || ids[size - 1] < id ? -size - 1 : Arrays.binarySearch(ids, 0, size, id);
+        if (at >= 0) {
+            return;
+        }
+        at = -at - 1;
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+        }
+        System.arraycopy(ids, at, ids, at + 1, size - at);
+        ids[at] = id;
+        size++;
+    }
+
+    /** Remove o id e diz se a lista ainda tem algum. */
+    boolean remove(int id) {
+        int at = Arrays.binarySearch(ids, 0, size, id);
+        if (at >= 0) {
+            System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+            size--;
+        }
+        return size > 0;
+    }
+}
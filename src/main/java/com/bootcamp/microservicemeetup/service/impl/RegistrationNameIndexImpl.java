@@ -0,0 +1,197 @@
+package com.bootcamp.microservicemeetup.service.impl;
+
+import com.bootcamp.microservicemeetup.model.entity.Registration;
+import com.bootcamp.microservicemeetup.repository.RegistrationRepository;
+import com.bootcamp.microservicemeetup.service.CountedPage;
+import com.bootcamp.microservicemeetup.service.RegistrationNameIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Índice ordenado das palavras dos nomes, já sem acento e em minúsculas. Uma busca percorre só a
+ * faixa de palavras que começam pela palavra mais longa do texto e confere as demais no nome
+ * guardado, lendo no máximo {@code registration.search.index.max-scan} ids.
+ * <p>
+ * Cada palavra guarda seus ids num {@code int[]} ordenado e só é lida ou alterada sob o lock do
+ * índice; a busca copia os ids da faixa e confere os nomes fora dele.
+ */
+@Service
+public class RegistrationNameIndexImpl implements RegistrationNameIndex {
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final TreeMap<String, Postings> words = new TreeMap<>();
+
+    private final Map<Integer, String[]> names = new ConcurrentHashMap<>();
+
+    private volatile boolean ready;
+
+    private RegistrationRepository repository;
+
+    private int maxScan;
+
+    private int batchSize;
+
+    public RegistrationNameIndexImpl(RegistrationRepository repository,
+                                     @Value("${registration.search.index.max-scan:50000}") int maxScan,
+                                     @Value("${registration.search.index.batch-size:5000}") int batchSize) {
+        this.repository = repository;
+        this.maxScan = maxScan;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public Optional<CountedPage<Integer>> search(String text, Pageable pageable) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        String[] terms = fold(text);
+        if (terms.length == 0) {
+            return Optional.of(new CountedPage<>(Collections.emptyList(), pageable, 0, true));
+        }
+        String driver = terms[0];
+        for (String term : terms) {
+            if (term.length() > driver.length()) {
+                driver = term;
+            }
+        }
+
+        int[] candidates = candidates(driver);
+        boolean complete = candidates.length <= maxScan;
+        Set<Integer> matches = new LinkedHashSet<>();
+        for (int i = 0; i < Math.min(candidates.length, maxScan); i++) {
+            Integer id = candidates[i];
+            if (!matches.contains(id) && matchesAll(names.get(id), terms)) {
+                matches.add(id);
+            }
+        }
+
+        List<Integer> all = new ArrayList<>(matches);
+        int from = pageable.isPaged() ? (int) Math.min(pageable.getOffset(), all.size()) : 0;
+        int to = pageable.isPaged() ? Math.min(from + pageable.getPageSize(), all.size()) : all.size();
+        long total = complete ? all.size() : all.size() + 1;
+        return Optional.of(new CountedPage<>(new ArrayList<>(all.subList(from, to)), pageable, total, complete));
+    }
+
+    @Override
+    public synchronized void index(Registration registration) {
+        if (registration == null || registration.getId() == null) {
+            return;
+        }
+        String[] folded = fold(registration.getName());
+        String[] previous = names.put(registration.getId(), folded);
+        if (previous != null) {
+            if (Arrays.equals(previous, folded)) {
+                return;
+            }
+            unlink(registration.getId(), previous);
+        }
+        link(registration.getId(), folded);
+    }
+
+    @Override
+    public synchronized void remove(Integer id) {
+        String[] previous = names.remove(id);
+        if (previous != null) {
+            unlink(id, previous);
+        }
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        ready = false;
+        Integer afterId = 0;
+        List<Object[]> rows;
+        do {
+            rows = repository.findNamesAfter(afterId, PageRequest.of(0, batchSize));
+            for (Object[] row : rows) {
+                Integer id = (Integer) row[0];
+                // escritas feitas durante a carga já indexaram a versão mais nova
+                synchronized (this) {
+                    String[] folded = fold((String) row[1]);
+                    if (names.putIfAbsent(id, folded) == null) {
+                        link(id, folded);
+                    }
+                }
+                afterId = id;
+            }
+        } while (rows.size() == batchSize);
+        ready = true;
+    }
+
+    /** Copia os ids das palavras que começam por {@code driver}, parando em {@code max-scan + 1}. */
+    private synchronized int[] candidates(String driver) {
+        int[] found = new int[16];
+        int count = 0;
+        for (Postings ids : words.subMap(driver, true, driver + Character.MAX_VALUE, true).values()) {
+            int take = Math.min(ids.size, maxScan + 1 - count);
+            if (count + take > found.length) {
+                found = Arrays.copyOf(found, Math.max(count + take, found.length * 2));
+            }
+            System.arraycopy(ids.ids, 0, found, count, take);
+            count += take;
+            if (count > maxScan) {
+                break;
+            }
+        }
+        return Arrays.copyOf(found, count);
+    }
+
+    private static boolean matchesAll(String[] name, String[] terms) {
+        if (name == null) {
+            return false;
+        }
+        for (String term : terms) {
+            boolean found = false;
+            for (String word : name) {
+                if (word.startsWith(term)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void link(Integer id, String[] folded) {
+        for (String word : folded) {
+            words.computeIfAbsent(word, key -> new Postings()).add(id);
+        }
+    }
+
+    private void unlink(Integer id, String[] folded) {
+        for (String word : folded) {
+            words.computeIfPresent(word, (key, ids) -> ids.remove(id) ? ids : null);
+        }
+    }
+
+    static String[] fold(String text) {
+        if (text == null) {
+            return new String[0];
+        }
+        return Arrays.stream(SEPARATORS.split(Folding.fold(text)))
+                .filter(word -> !word.isEmpty())
+                .distinct()
+                .toArray(String[]::new);
+    }
+}
@@ -3,13 +3,28 @@ package com.bootcamp.microservicemeetup.service.impl;
 import com.bootcamp.microservicemeetup.exception.BusinessException;
 import com.bootcamp.microservicemeetup.model.entity.Registration;
 import com.bootcamp.microservicemeetup.repository.RegistrationRepository;
+import com.bootcamp.microservicemeetup.repository.specification.RegistrationSpecifications;
+import com.bootcamp.microservicemeetup.security.PrincipalCache;
+import com.bootcamp.microservicemeetup.service.CountStrategy;
+import com.bootcamp.microservicemeetup.service.CountedPage;
+import com.bootcamp.microservicemeetup.service.PageCountService;
+import com.bootcamp.microservicemeetup.service.RegistrationNameIndex;
 import com.bootcamp.microservicemeetup.service.RegistrationService;
+import com.bootcamp.microservicemeetup.service.TokenService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.*;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class RegistrationServiceImpl implements RegistrationService {
@@ -19,9 +34,25 @@ public class RegistrationServiceImpl implements RegistrationService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
-    public RegistrationServiceImpl(RegistrationRepository repository, PasswordEncoder passwordEncoder) {
+    private PrincipalCache principalCache;
+
+    private PageCountService pageCountService;
+
+    private RegistrationNameIndex nameIndex;
+
+    private TokenService tokenService;
+
+    private static final String COUNT_KEY = "registrations";
+
+    public RegistrationServiceImpl(RegistrationRepository repository, PasswordEncoder passwordEncoder,
+                                   PrincipalCache principalCache, PageCountService pageCountService,
+                                   RegistrationNameIndex nameIndex, TokenService tokenService) {
         this.repository = repository;
         this.passwordEncoder = passwordEncoder;
+        this.principalCache = principalCache;
+        this.pageCountService = pageCountService;
+        this.nameIndex = nameIndex;
+        this.tokenService = tokenService;
     }
 
     public Registration save(Registration registration) {
@@ -29,7 +60,10 @@ public class RegistrationServiceImpl implements RegistrationService {
             throw new BusinessException("Registration already created");
         }
         registration.setPassword(passwordEncoder.encode(registration.getPassword()));
-        return repository.save(registration);
+        Registration saved = repository.save(registration);
+        nameIndex.index(saved);
+        pageCountService.invalidate(COUNT_KEY);
+        return saved;
     }
 
     @Override
@@ -44,6 +78,10 @@ public class RegistrationServiceImpl implements RegistrationService {
             throw new IllegalArgumentException("Registration id cannot be null");
         }
         this.repository.delete(registration);
+        tokenService.revokeRefreshTokens(registration.getRegistration());
+        principalCache.invalidate(registration.getRegistration());
+        nameIndex.remove(registration.getId());
+        pageCountService.invalidate(COUNT_KEY);
     }
 
     // inserir mais uma validacao no save();
@@ -58,19 +96,57 @@ public class RegistrationServiceImpl implements RegistrationService {
         }
         registration.setRegistration( original_registration.get().getRegistration());
         registration.setPassword( passwordEncoder.encode(registration.getPassword()));
-        return this.repository.save(registration);
+        Registration updated = this.repository.save(registration);
+        // a senha sempre chega em texto puro; comparar com o hash custaria outro bcrypt só para decidir isto
+        tokenService.revokeRefreshTokens(original_registration.get().getRegistration());
+        principalCache.invalidate(original_registration.get().getRegistration());
+        nameIndex.index(updated);
+        pageCountService.invalidate(COUNT_KEY);
+        return updated;
     }
 
     @Override
     public Page<Registration> find(Registration filter, Pageable pageRequest) {
-        Example<Registration> example = Example.of(filter,
-                ExampleMatcher
-                .matching()
-                .withIgnoreCase()
-                .withIgnoreNullValues()
-                .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING));
-
-        return repository.findAll(example, pageRequest);
+        return repository.findAll(RegistrationSpecifications.of(filter), pageRequest);
+    }
+
+    @Override
+    public CountedPage<Registration> find(Registration filter, Pageable pageRequest, CountStrategy countStrategy) {
+        Specification<Registration> specification = RegistrationSpecifications.of(filter);
+        // a senha nunca entra na chave em claro
+        String key = pageCountService.key(COUNT_KEY, filter.getId(), filter.getName(),
+                filter.getDateOfRegistration(), filter.getRegistration(),
+                filter.getPassword() == null ? null : Integer.toHexString(filter.getPassword().hashCode()));
+        if (countStrategy == CountStrategy.EXACT) {
+            return pageCountService.exact(key, repository.findAll(specification, pageRequest));
+        }
+        return pageCountService.counted(key, repository.findSlice(Registration.class, specification, pageRequest),
+                countStrategy, () -> repository.count(specification));
+    }
+
+    @Override
+    public Slice<Registration> scroll(Registration filter, Integer afterId, int size) {
+        return repository.scroll(Registration.class, RegistrationSpecifications.of(filter), afterId, size);
+    }
+
+    @Override
+    public CountedPage<Registration> searchByName(String name, Pageable pageRequest) {
+        Optional<CountedPage<Integer>> indexed = nameIndex.search(name, pageRequest);
+        if (!indexed.isPresent()) {
+            // índice ainda carregando: o filtro do banco não casa prefixo de palavra nem ignora acento
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Busca por nome indisponível, tente novamente em instantes!");
+        }
+        CountedPage<Integer> ids = indexed.get();
+        Map<Integer, Registration> byId = repository.findAllById(ids.getContent())
+                .stream()
+                .collect(Collectors.toMap(Registration::getId, Function.identity()));
+        // mantém a ordem do índice; uma inscrição apagada entre as duas leituras some da página
+        List<Registration> content = ids.getContent()
+                .stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        return new CountedPage<>(content, pageRequest, ids.getTotalElements(), ids.isTotalExact());
     }
 
     @Override
@@ -0,0 +1,138 @@
+package com.bootcamp.microservicemeetup.service.impl;
+
+import com.bootcamp.microservicemeetup.model.entity.Meetup;
+import com.bootcamp.microservicemeetup.repository.RegistrationRepository;
+import com.bootcamp.microservicemeetup.service.SeatReservationService;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Controla os lugares ocupados de cada Meetup com capacidade em contadores na memória,
+ * iniciados a partir de registrations_meetups. A admissão é decidida aqui, antes de qualquer escrita
+ * no banco. Dentro de uma transação, o lugar reservado só volta se ela não for confirmada, e o lugar
+ * liberado só volta depois do commit; até lá os dois contam como ocupados.
+ * <p>
+ * Cada Meetup tem um único {@link AtomicLong} com os lugares ocupados na metade alta e as mudanças
+ * ainda sem commit na baixa, então reservar, devolver e {@link #reconcile()} são só CAS, sem lock,
+ * e nenhuma consulta ao banco acontece segurando o contador.
+ */
+@Service
+public class SeatReservationServiceImpl implements SeatReservationService {
+
+    private static final long ONE_TAKEN = 1L << 32;
+
+    private static final long ONE_PENDING = 1L;
+
+    private final ConcurrentMap<Integer, AtomicLong> seats = new ConcurrentHashMap<>();
+
+    private RegistrationRepository registrationRepository;
+
+    public SeatReservationServiceImpl(RegistrationRepository registrationRepository) {
+        this.registrationRepository = registrationRepository;
+    }
+
+    @Override
+    public boolean tryReserve(Meetup meetup) {
+        if (meetup.getCapacity() == null) {
+            return true;
+        }
+        AtomicLong seats = seats(meetup.getId());
+        boolean inTransaction = TransactionSynchronizationManager.isSynchronizationActive();
+
+        // o lugar e a mudança pendente entram no mesmo CAS
+        long delta = inTransaction ? ONE_TAKEN + ONE_PENDING : ONE_TAKEN;
+        while (true) {
+            long state = seats.get();
+            if (taken(state) >= meetup.getCapacity()) {
+                return false;
+            }
+            if (seats.compareAndSet(state, state + delta)) {
+                break;
+            }
+        }
+        if (inTransaction) {
+            afterCompletion(committed -> seats.addAndGet(committed ? -ONE_PENDING : -ONE_TAKEN - ONE_PENDING));
+        }
+        return true;
+    }
+
+    @Override
+    public void release(Integer meetupId) {
+        AtomicLong seats = this.seats.get(meetupId);
+        if (seats == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            seats.updateAndGet(state -> taken(state) > 0 ? state - ONE_TAKEN : state);
+            return;
+        }
+        seats.addAndGet(ONE_PENDING);
+        afterCompletion(committed -> seats.updateAndGet(state ->
+                committed && taken(state) > 0 ? state - ONE_TAKEN - ONE_PENDING : state - ONE_PENDING));
+    }
+
+    @Override
+    public void evict(Integer meetupId) {
+        seats.remove(meetupId);
+    }
+
+    /**
+     * Corrige o que os contadores tenham se desviado do banco. A contagem roda fora de qualquer lock;
+     * o desvio medido contra o estado lido antes dela é aplicado por CAS, preservando as reservas e
+     * liberações que aconteceram durante a consulta. Uma transação que confirma durante a contagem
+     * pode deixar um lugar a mais ocupado até a próxima rodada, mas nunca um a menos.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${meetup.seats.reconcile-ms:60000}", initialDelayString = "${meetup.seats.reconcile-ms:60000}")
+    public void reconcile() {
+        this.seats.forEach((meetupId, seats) -> {
+            long before = seats.get();
+            long count = registrationRepository.countByMeetups_Id(meetupId);
+            seats.updateAndGet(state -> {
+                long taken = count + pending(before) + taken(state) - taken(before);
+                return Math.max(0, taken) * ONE_TAKEN + pending(state);
+            });
+        });
+    }
+
+    private AtomicLong seats(Integer meetupId) {
+        AtomicLong seats = this.seats.get(meetupId);
+        if (seats != null) {
+            return seats;
+        }
+        // a contagem inicial roda antes de tocar no mapa; se outra thread semeou antes, vale a dela
+        AtomicLong seeded = new AtomicLong(registrationRepository.countByMeetups_Id(meetupId) * ONE_TAKEN);
+        AtomicLong existing = this.seats.putIfAbsent(meetupId, seeded);
+        return existing != null ? existing : seeded;
+    }
+
+    /**
+     * Aplica a mudança quando a transação atual terminar.
+     */
+    private void afterCompletion(Completion completion) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                completion.apply(status == STATUS_COMMITTED);
+            }
+        });
+    }
+
+    private static int taken(long state) {
+        return (int) (state >>> 32);
+    }
+
+    private static int pending(long state) {
+        return (int) state;
+    }
+
+    private interface Completion {
+        void apply(boolean committed);
+    }
+}
@@ -0,0 +1,174 @@
+package com.bootcamp.microservicemeetup.service.impl;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.bootcamp.microservicemeetup.controller.dto.TokenDTO;
+import com.bootcamp.microservicemeetup.model.entity.RefreshToken;
+import com.bootcamp.microservicemeetup.model.entity.RevokedToken;
+import com.bootcamp.microservicemeetup.repository.RefreshTokenRepository;
+import com.bootcamp.microservicemeetup.repository.RevokedTokenRepository;
+import com.bootcamp.microservicemeetup.security.AuthenticatedPrincipal;
+import com.bootcamp.microservicemeetup.security.JWTAutenticationFilter;
+import com.bootcamp.microservicemeetup.security.PrincipalCache;
+import com.bootcamp.microservicemeetup.security.RoleAuthorities;
+import com.bootcamp.microservicemeetup.security.TokenRevocationList;
+import com.bootcamp.microservicemeetup.service.TokenService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Emite o access token (JWT) junto com um refresh token opaco. No banco fica só o SHA-256
+ * do refresh token, e cada uso apaga a linha e emite um novo (rotação), sem passar pelo BCrypt.
+ * O token rotacionado herda a expiração absoluta do original, e as roles são relidas da Registration a cada uso.
+ */
+@Service
+public class TokenServiceImpl implements TokenService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private static final String INVALID = "Refresh token inválido!";
+
+    private RefreshTokenRepository repository;
+
+    private RevokedTokenRepository revokedTokenRepository;
+
+    private TokenRevocationList revocationList;
+
+    private PrincipalCache principalCache;
+
+    private long accessTokenTtlSeconds;
+
+    private long refreshTokenTtlSeconds;
+
+    public TokenServiceImpl(RefreshTokenRepository repository, RevokedTokenRepository revokedTokenRepository,
+                            TokenRevocationList revocationList, PrincipalCache principalCache,
+                            @Value("${security.jwt.access-token.ttl-seconds:3600}") long accessTokenTtlSeconds,
+                            @Value("${security.jwt.refresh-token.ttl-seconds:2592000}") long refreshTokenTtlSeconds) {
+        this.repository = repository;
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.revocationList = revocationList;
+        this.principalCache = principalCache;
+        this.accessTokenTtlSeconds = accessTokenTtlSeconds;
+        this.refreshTokenTtlSeconds = refreshTokenTtlSeconds;
+    }
+
+    @Override
+    @Transactional
+    public TokenDTO issue(String registration, Collection<String> roles) {
+        return issue(registration, roles, System.currentTimeMillis() + refreshTokenTtlSeconds * 1000);
+    }
+
+    private TokenDTO issue(String registration, Collection<String> roles, long refreshTokenExpiresAt) {
+        String jti = UUID.randomUUID().toString();
+        String refreshToken = newRefreshToken();
+        repository.save(RefreshToken.builder()
+                .tokenHash(hash(refreshToken))
+                .registration(registration)
+                .accessJti(jti)
+                .expiresAt(refreshTokenExpiresAt)
+                .build());
+
+        String accessToken = JWT.create()
+                .withSubject(registration)
+                .withJWTId(jti)
+                .withArrayClaim(RoleAuthorities.CLAIM, roles.toArray(new String[0]))
+                .withExpiresAt(new Date(System.currentTimeMillis() + accessTokenTtlSeconds * 1000))
+                .sign(JWTAutenticationFilter.ALGORITHM);
+
+        return TokenDTO.builder()
+                .accessToken(accessToken)
+                .refreshToken(refreshToken)
+                .expiresIn(accessTokenTtlSeconds)
+                .build();
+    }
+
+    @Override
+    @Transactional
+    public TokenDTO refresh(String refreshToken) {
+        RefreshToken stored = repository.findByTokenHash(hash(refreshToken))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, INVALID));
+
+        // as validações vêm antes do delete: a exceção desfaria a remoção da linha
+        if (stored.getExpiresAt() < System.currentTimeMillis()) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, INVALID);
+        }
+        AuthenticatedPrincipal principal = principalCache.get(stored.getRegistration())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, INVALID));
+
+        // o delete com contagem garante que duas renovações simultâneas do mesmo token não passem as duas
+        if (repository.deleteAndCount(stored.getId()) == 0) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, INVALID);
+        }
+        return issue(principal.getRegistration(), principal.getRoles(), stored.getExpiresAt());
+    }
+
+    @Override
+    @Transactional
+    public void revoke(String accessToken) {
+        DecodedJWT jwt = JWT.decode(accessToken);
+        if (jwt.getId() == null || jwt.getExpiresAt() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Token sem jti não pode ser revogado!");
+        }
+        long expiresAt = jwt.getExpiresAt().getTime();
+        revokedTokenRepository.save(RevokedToken.builder().jti(jwt.getId()).expiresAt(expiresAt).build());
+        revocationList.revoke(jwt.getId(), expiresAt);
+        // o refresh token emitido junto com este access token morre no logout; as outras sessões seguem valendo
+        repository.deleteByAccessJti(jwt.getId());
+    }
+
+    @Override
+    @Transactional
+    public void revokeRefreshTokens(String registration) {
+        repository.deleteByRegistration(registration);
+    }
+
+    @Scheduled(fixedDelayString = "${security.jwt.refresh-token.purge-ms:3600000}",
+            initialDelayString = "${security.jwt.refresh-token.purge-ms:3600000}")
+    @Transactional
+    public void purgeExpiredRefreshTokens() {
+        repository.deleteExpired(System.currentTimeMillis());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void loadRevokedTokens() {
+        long now = System.currentTimeMillis();
+        revokedTokenRepository.deleteExpired(now);
+        revokedTokenRepository.findByExpiresAtGreaterThan(now)
+                .forEach(revoked -> revocationList.revoke(revoked.getJti(), revoked.getExpiresAt()));
+    }
+
+    private String newRefreshToken() {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(64);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.bootcamp.microservicemeetup.controller;
+
+import com.bootcamp.microservicemeetup.controller.dto.RefreshTokenDTO;
+import com.bootcamp.microservicemeetup.controller.dto.TokenDTO;
+import com.bootcamp.microservicemeetup.controller.resource.AuthController;
+import com.bootcamp.microservicemeetup.security.TokenRevocationList;
+import com.bootcamp.microservicemeetup.security.UserDetailServiceImpl;
+import com.bootcamp.microservicemeetup.service.TokenService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@WebMvcTest(controllers = {AuthController.class})
+@AutoConfigureMockMvc(addFilters = false)
+public class AuthControllerTest {
+
+    static final String AUTH_API = "/api/auth";
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @MockBean
+    private UserDetailServiceImpl userDetailService;
+
+    @MockBean
+    private TokenService tokenService;
+
+    @MockBean
+    private TokenRevocationList tokenRevocationList;
+
+    @Test
+    @DisplayName("Should renew the tokens with a valid refresh token")
+    public void refresh() throws Exception {
+        TokenDTO token = TokenDTO.builder().accessToken("novo-access").refreshToken("novo-refresh").expiresIn(3600).build();
+
+        BDDMockito.given(tokenService.refresh("antigo-refresh")).willReturn(token);
+
+        String json = new ObjectMapper().writeValueAsString(RefreshTokenDTO.builder().refreshToken("antigo-refresh").build());
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .post(AUTH_API.concat("/refresh"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(json);
+
+        mockMvc
+                .perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("accessToken").value("novo-access"))
+                .andExpect(jsonPath("refreshToken").value("novo-refresh"))
+                .andExpect(jsonPath("expiresIn").value(3600));
+    }
+
+    @Test
+    @DisplayName("Should answer 401 when the refresh token is unknown or already used")
+    public void notRefreshInvalidToken() throws Exception {
+        BDDMockito.given(tokenService.refresh("usado"))
+                .willThrow(new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Refresh token inválido!"));
+
+        String json = new ObjectMapper().writeValueAsString(RefreshTokenDTO.builder().refreshToken("usado").build());
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .post(AUTH_API.concat("/refresh"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(json);
+
+        mockMvc
+                .perform(request)
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("errors[0]").value("Refresh token inválido!"));
+    }
+
+    @Test
+    @DisplayName("Should revoke the access token sent in the Authorization header")
+    public void revoke() throws Exception {
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .post(AUTH_API.concat("/revoke"))
+                .header("Authorization", "Bearer token-roubado");
+
+        mockMvc
+                .perform(request)
+                .andExpect(status().isNoContent());
+
+        Mockito.verify(tokenService).revoke("token-roubado");
+    }
+}
@@ -0,0 +1,69 @@
+package com.bootcamp.microservicemeetup.controller;
+
+import com.bootcamp.microservicemeetup.controller.dto.MeetupDTO;
+import com.bootcamp.microservicemeetup.controller.dto.RegistrationResponseDTO;
+import com.bootcamp.microservicemeetup.model.entity.Meetup;
+import com.bootcamp.microservicemeetup.model.entity.Registration;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DtoMappingTest {
+
+    ModelMapper modelMapper = new ModelMapper();
+
+    @Test
+    @DisplayName("Should map a meetup and its registrations like the ModelMapper did")
+    public void mapMeetup() {
+        Meetup meetup = createMeetup();
+        meetup.setRegistrations(List.of(createRegistration(101), createRegistration(102)));
+
+        assertThat(MeetupDTO.from(meetup)).isEqualTo(modelMapper.map(meetup, MeetupDTO.class));
+    }
+
+    @Test
+    @DisplayName("Should keep missing collections null like the ModelMapper did")
+    public void mapWithoutCollections() {
+        Meetup meetup = createMeetup();
+        Registration registration = createRegistration(101);
+
+        assertThat(MeetupDTO.from(meetup)).isEqualTo(modelMapper.map(meetup, MeetupDTO.class));
+        assertThat(RegistrationResponseDTO.from(registration)).isEqualTo(modelMapper.map(registration, RegistrationResponseDTO.class));
+    }
+
+    @Test
+    @DisplayName("Should map a registration and its meetups without the password")
+    public void mapRegistration() {
+        Registration registration = createRegistration(101);
+        registration.setMeetups(new ArrayList<>(List.of(createMeetup())));
+
+        RegistrationResponseDTO dto = RegistrationResponseDTO.from(registration);
+
+        assertThat(dto).isEqualTo(modelMapper.map(registration, RegistrationResponseDTO.class));
+        assertThat(dto.getMeetups()).extracting("event").containsExactly("Evento teste");
+    }
+
+    private Meetup createMeetup() {
+        return Meetup.builder()
+                .id(99)
+                .event("Evento teste")
+                .meetupDate("01/01/2022")
+                .capacity(10)
+                .build();
+    }
+
+    private Registration createRegistration(Integer id) {
+        return Registration.builder()
+                .id(id)
+                .name("Isis Oliveira")
+                .dateOfRegistration("01/01/2022")
+                .registration("00" + id)
+                .password("123")
+                .build();
+    }
+}
@@ -1,16 +1,26 @@
 package com.bootcamp.microservicemeetup.controller;
 
 
+import com.bootcamp.microservicemeetup.controller.dto.BulkEnrollmentDTO;
 import com.bootcamp.microservicemeetup.controller.dto.RegistrationDTO;
 import com.bootcamp.microservicemeetup.controller.dto.RegistrationFilterDTO;
+import com.bootcamp.microservicemeetup.controller.dto.TrackSubscriptionDTO;
 import com.bootcamp.microservicemeetup.controller.resource.MeetupController;
 import com.bootcamp.microservicemeetup.exception.BusinessException;
 import com.bootcamp.microservicemeetup.controller.dto.MeetupDTO;
+import com.bootcamp.microservicemeetup.model.RosterEntry;
 import com.bootcamp.microservicemeetup.model.entity.Meetup;
 import com.bootcamp.microservicemeetup.model.entity.Registration;
+import com.bootcamp.microservicemeetup.security.TokenRevocationList;
 import com.bootcamp.microservicemeetup.security.UserDetailServiceImpl;
+import com.bootcamp.microservicemeetup.service.TokenService;
 import com.bootcamp.microservicemeetup.service.MeetupService;
+import com.bootcamp.microservicemeetup.service.MembershipOutcome;
+import com.bootcamp.microservicemeetup.service.MembershipService;
+import com.bootcamp.microservicemeetup.service.CountStrategy;
+import com.bootcamp.microservicemeetup.service.CountedPage;
 import com.bootcamp.microservicemeetup.service.RegistrationService;
+import com.bootcamp.microservicemeetup.service.SubscriptionBatcher;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -25,6 +35,7 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
@@ -38,7 +49,11 @@ import org.testcontainers.shaded.com.fasterxml.jackson.databind.ObjectMapper;
 import static org.mockito.ArgumentMatchers.any;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @ExtendWith(SpringExtension.class)
 @ActiveProfiles("test")
@@ -57,9 +72,21 @@ public class MeetupControllerTest {
     @MockBean
     private MeetupService meetupService;
 
+    @MockBean
+    private MembershipService membershipService;
+
+    @MockBean
+    private SubscriptionBatcher subscriptionBatcher;
+
     @MockBean
     private UserDetailServiceImpl userDetailService;
 
+    @MockBean
+    private TokenService tokenService;
+
+    @MockBean
+    private TokenRevocationList tokenRevocationList;
+
     @Test
     @DisplayName("Should register on a meetup")
     public void create() throws Exception {
@@ -94,13 +121,59 @@ public class MeetupControllerTest {
                 .andExpect(jsonPath("meetupDate").value(meetupDTO.getMeetupDate()));
     }
 
+    @Test
+    @DisplayName("Should scroll meetups with a cursor and no count")
+    public void scroll() throws Exception {
+        Meetup first = createMeetup();
+        Meetup second = createMeetup();
+        second.setId(100);
+
+        BDDMockito.given(meetupService.scroll(Mockito.any(Meetup.class), Mockito.isNull(), Mockito.eq(2), Mockito.eq(true)))
+                .willReturn(new SliceImpl<Meetup>(Arrays.asList(first, second), PageRequest.of(0, 2), true));
+
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders
+                .get(MEETUP_API.concat("/scroll?size=2"))
+                .accept(MediaType.APPLICATION_JSON);
+
+        String next = Base64.getUrlEncoder().withoutPadding().encodeToString("v1:100".getBytes(StandardCharsets.UTF_8));
+
+        mockMvc
+                .perform(requestBuilder)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("content", Matchers.hasSize(2)))
+                .andExpect(jsonPath("hasNext").value(true))
+                .andExpect(jsonPath("next").value(next))
+                .andExpect(jsonPath("totalElements").doesNotExist());
+
+        BDDMockito.given(meetupService.scroll(Mockito.any(Meetup.class), Mockito.eq(100), Mockito.eq(2), Mockito.eq(true)))
+                .willReturn(new SliceImpl<Meetup>(Collections.emptyList(), PageRequest.of(0, 2), false));
+
+        mockMvc
+                .perform(MockMvcRequestBuilders.get(MEETUP_API.concat("/scroll?size=2&after=" + next))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("content", Matchers.hasSize(0)))
+                .andExpect(jsonPath("hasNext").value(false))
+                .andExpect(jsonPath("next").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Should reject a cursor that was not issued by the API")
+    public void notScrollInvalidCursor() throws Exception {
+        mockMvc
+                .perform(MockMvcRequestBuilders.get(MEETUP_API.concat("/scroll?after=qualquer-coisa"))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("errors[0]").value("Cursor inválido!"));
+    }
+
     @Test
     @DisplayName("Should find all meetups")
     public void find() throws Exception {
         Meetup meetup = createMeetup();
 
-        BDDMockito.given(meetupService.find(Mockito.any(Meetup.class), Mockito.any(Pageable.class)))
-                .willReturn(new PageImpl<Meetup>(Arrays.asList(meetup), PageRequest.of(0, 100), 1));
+        BDDMockito.given(meetupService.find(Mockito.any(Meetup.class), Mockito.isNull(), Mockito.isNull(), Mockito.any(Pageable.class), Mockito.eq(CountStrategy.EXACT), Mockito.eq(true)))
+                .willReturn(new CountedPage<Meetup>(Arrays.asList(meetup), PageRequest.of(0, 100), 1, true));
 
         String queryString = String.format("?event=%s&meetupDate=%s&page=0&size=100",
                 meetup.getEvent(), meetup.getMeetupDate());
@@ -114,10 +187,152 @@ public class MeetupControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("content", Matchers.hasSize(1)))
                 .andExpect(jsonPath("totalElements").value(1))
+                .andExpect(jsonPath("totalExact").value(true))
                 .andExpect(jsonPath("pageable.pageSize").value(100))
                 .andExpect(jsonPath("pageable.pageNumber").value(0));
     }
 
+    @Test
+    @DisplayName("Should find meetups with only the requested fields and without loading registrations")
+    public void findFields() throws Exception {
+        BDDMockito.given(meetupService.find(Mockito.any(Meetup.class), Mockito.isNull(), Mockito.isNull(), Mockito.any(Pageable.class),
+                        Mockito.eq(CountStrategy.EXACT), Mockito.eq(false)))
+                .willReturn(new CountedPage<Meetup>(Arrays.asList(createMeetup()), PageRequest.of(0, 20), 1, true));
+
+        mockMvc
+                .perform(MockMvcRequestBuilders.get(MEETUP_API.concat("?fields=id,event,meetupDate"))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("content[0].id").value(createMeetup().getId()))
+                .andExpect(jsonPath("content[0].event").value(createMeetup().getEvent()))
+                .andExpect(jsonPath("content[0].meetupDate").value(createMeetup().getMeetupDate()))
+                .andExpect(jsonPath("content[0].capacity").doesNotExist())
+                .andExpect(jsonPath("content[0].registrations").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Should not find meetups asking for an unknown field")
+    public void notFindUnknownField() throws Exception {
+        mockMvc
+                .perform(MockMvcRequestBuilders.get(MEETUP_API.concat("?fields=id,password"))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("errors[0]").value("Campo desconhecido em fields: password!"));
+    }
+
+    @Test
+    @DisplayName("Should keep the null fields in the default output when no fields are requested")
+    public void findWithoutFieldsKeepsNulls() throws Exception {
+        BDDMockito.given(meetupService.find(Mockito.any(Meetup.class), Mockito.isNull(), Mockito.isNull(), Mockito.any(Pageable.class),
+                        Mockito.eq(CountStrategy.EXACT), Mockito.eq(true)))
+                .willReturn(new CountedPage<Meetup>(Arrays.asList(createMeetup()), PageRequest.of(0, 20), 1, true));
+
+        mockMvc
+                .perform(MockMvcRequestBuilders.get(MEETUP_API)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("content[0]", Matchers.hasKey("capacity")))
+                .andExpect(jsonPath("content[0].capacity").value(Matchers.nullValue()));
+    }
+
+    @Test
+    @DisplayName("Should not find meetups asking for an empty list of fields")
+    public void notFindEmptyFields() throws Exception {
+        mockMvc
+                .perform(MockMvcRequestBuilders.get(MEETUP_API).param("fields", " , ")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("errors[0]").value("Informe ao menos um campo em fields!"));
+    }
+
+    @Test
+    @DisplayName("Should find meetups between two ISO dates")
+    public void findBetweenDates() throws Exception {
+        BDDMockito.given(meetupService.find(Mockito.any(Meetup.class), Mockito.eq(LocalDate.of(2022, 1, 1)),
+                        Mockito.eq(LocalDate.of(2022, 1, 7)), Mockito.any(Pageable.class), Mockito.eq(CountStrategy.EXACT), Mockito.eq(true)))
+                .willReturn(new CountedPage<Meetup>(Arrays.asList(createMeetup()), PageRequest.of(0, 20), 1, true));
+
+        mockMvc
+                .perform(MockMvcRequestBuilders.get(MEETUP_API.concat("?from=2022-01-01&to=2022-01-07"))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("content", Matchers.hasSize(1)))
+                .andExpect(jsonPath("totalElements").value(1));
+    }
+
+    @Test
+    @DisplayName("Should find meetups with an estimated total when asked to")
+    public void findEstimated() throws Exception {
+        Meetup meetup = createMeetup();
+
+        BDDMockito.given(meetupService.find(Mockito.any(Meetup.class), Mockito.isNull(), Mockito.isNull(), Mockito.any(Pageable.class), Mockito.eq(CountStrategy.ESTIMATED), Mockito.eq(true)))
+                .willReturn(new CountedPage<Meetup>(Arrays.asList(meetup), PageRequest.of(0, 1), 2, false));
+
+        mockMvc
+                .perform(MockMvcRequestBuilders.get(MEETUP_API.concat("?page=0&size=1&count=ESTIMATED"))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("content", Matchers.hasSize(1)))
+                .andExpect(jsonPath("totalElements").value(2))
+                .andExpect(jsonPath("totalExact").value(false));
+    }
+
+    @Test
+    @DisplayName("Should suggest meetup events by prefix with only id and event")
+    public void suggest() throws Exception {
+        BDDMockito.given(meetupService.suggest("jav", 10))
+                .willReturn(List.of(Meetup.builder().id(7).event("Java Meetup").build()));
+
+        mockMvc
+                .perform(MockMvcRequestBuilders.get(MEETUP_API.concat("/suggest?prefix=jav"))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", Matchers.hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(7))
+                .andExpect(jsonPath("$[0].event").value("Java Meetup"))
+                .andExpect(jsonPath("$[0].registrations").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Should not suggest meetups beyond the maximum limit")
+    public void notSuggestAboveLimit() throws Exception {
+        mockMvc
+                .perform(MockMvcRequestBuilders.get(MEETUP_API.concat("/suggest?prefix=jav&limit=51"))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("errors[0]").value("O limite de sugestões deve ser entre 1 e 50!"));
+    }
+
+    @Test
+    @DisplayName("Should list the roster of a meetup with only id, name and registration")
+    public void registrations() throws Exception {
+        BDDMockito.given(meetupService.getRegistrationsByMeetup(Mockito.eq(11), Mockito.any(Pageable.class)))
+                .willReturn(new PageImpl<>(List.of(new RosterEntry(101, "Isis Oliveira", "001")), PageRequest.of(0, 20), 1));
+
+        mockMvc
+                .perform(MockMvcRequestBuilders.get(MEETUP_API.concat("/11/registrations?page=0&size=20"))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("content", Matchers.hasSize(1)))
+                .andExpect(jsonPath("content[0].id").value(101))
+                .andExpect(jsonPath("content[0].name").value("Isis Oliveira"))
+                .andExpect(jsonPath("content[0].registration").value("001"))
+                .andExpect(jsonPath("content[0].password").doesNotExist())
+                .andExpect(jsonPath("totalElements").value(1));
+    }
+
+    @Test
+    @DisplayName("Should return not found when listing the roster of a missing meetup")
+    public void registrationsOfMissingMeetup() throws Exception {
+        BDDMockito.given(meetupService.getRegistrationsByMeetup(Mockito.eq(11), Mockito.any(Pageable.class)))
+                .willThrow(new IllegalArgumentException("Meetup not found!"));
+
+        mockMvc
+                .perform(MockMvcRequestBuilders.get(MEETUP_API.concat("/11/registrations"))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     @DisplayName("Should find a meetups by its id")
     public void findById() throws Exception {
@@ -281,7 +496,7 @@ public class MeetupControllerTest {
         BDDMockito.given(meetupService.getMeetupById(Mockito.anyInt())).willReturn(Optional.ofNullable(meetup));
         BDDMockito.given(registrationService.getRegistrationById(Mockito.anyInt())).willReturn(Optional.ofNullable(createValidRegistration()));
 
-        BDDMockito.given(meetupService.update(meetup)).willReturn(updated_meetup);
+        BDDMockito.given(membershipService.join(Mockito.any(Meetup.class), Mockito.any(Registration.class))).willReturn(updated_meetup);
 
         String json = new ObjectMapper().writeValueAsString(registrationFilterDTO);
 
@@ -351,6 +566,8 @@ public class MeetupControllerTest {
 
         BDDMockito.given(meetupService.getMeetupById(Mockito.anyInt())).willReturn(Optional.ofNullable(meetup));
         BDDMockito.given(registrationService.getRegistrationById(Mockito.anyInt())).willReturn(Optional.ofNullable(createValidRegistration()));
+        BDDMockito.given(membershipService.join(Mockito.any(Meetup.class), Mockito.any(Registration.class)))
+                .willThrow(new BusinessException("A Meetup já contém a registration informada!"));
 
         String json = new ObjectMapper().writeValueAsString(registrationFilterDTO);
 
@@ -383,6 +600,8 @@ public class MeetupControllerTest {
 
         BDDMockito.given(meetupService.getMeetupById(Mockito.anyInt())).willReturn(Optional.ofNullable(meetup));
         BDDMockito.given(registrationService.getRegistrationById(Mockito.anyInt())).willReturn(Optional.ofNullable(registration));
+        BDDMockito.given(membershipService.join(Mockito.any(Meetup.class), Mockito.any(Registration.class)))
+                .willThrow(new BusinessException("A Registration já está inscrita em outra meetup no dia " + meetup.getMeetupDate()));
 
         String json = new ObjectMapper().writeValueAsString(registrationFilterDTO);
 
@@ -397,6 +616,203 @@ public class MeetupControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    @DisplayName("Should subscribe on a meetup through the batch writer when batching is enabled")
+    public void subscribeBatched() throws Exception {
+        Meetup meetup = createValidMeetup();
+        RegistrationFilterDTO registrationFilterDTO = createValidRegistrationFilterDTO();
+
+        BDDMockito.given(meetupService.getMeetupById(Mockito.anyInt())).willReturn(Optional.ofNullable(meetup));
+        BDDMockito.given(subscriptionBatcher.isEnabled()).willReturn(true);
+        BDDMockito.given(subscriptionBatcher.submit(meetup.getId(), registrationFilterDTO.getId())).willReturn(MembershipOutcome.JOINED);
+
+        String json = new ObjectMapper().writeValueAsString(registrationFilterDTO);
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .put(MEETUP_API.concat("/" + meetup.getId() + "/subscribe"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(json);
+
+        mockMvc
+                .perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("id").value(meetup.getId()));
+
+        Mockito.verify(registrationService, Mockito.never()).getRegistrationById(Mockito.anyInt());
+    }
+
+    @Test
+    @DisplayName("Should not subscribe through the batch writer on a full meetup")
+    public void notSubscribeBatchedFull() throws Exception {
+        Meetup meetup = createValidMeetup();
+        RegistrationFilterDTO registrationFilterDTO = createValidRegistrationFilterDTO();
+
+        BDDMockito.given(meetupService.getMeetupById(Mockito.anyInt())).willReturn(Optional.ofNullable(meetup));
+        BDDMockito.given(subscriptionBatcher.isEnabled()).willReturn(true);
+        BDDMockito.given(subscriptionBatcher.submit(meetup.getId(), registrationFilterDTO.getId())).willReturn(MembershipOutcome.FULL);
+
+        String json = new ObjectMapper().writeValueAsString(registrationFilterDTO);
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .put(MEETUP_API.concat("/" + meetup.getId() + "/subscribe"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(json);
+
+        mockMvc
+                .perform(request)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("errors[0]").value("A Meetup está lotada!"));
+    }
+
+    @Test
+    @DisplayName("Should enroll many registrations on a meetup reporting each outcome")
+    public void enroll() throws Exception {
+        Meetup meetup = createValidMeetup();
+        BulkEnrollmentDTO bulkEnrollmentDTO = BulkEnrollmentDTO.builder()
+                .registrationIds(List.of(101, 102, 103))
+                .build();
+
+        Map<Integer, MembershipOutcome> outcomes = new LinkedHashMap<>();
+        outcomes.put(101, MembershipOutcome.JOINED);
+        outcomes.put(102, MembershipOutcome.ALREADY_JOINED);
+        outcomes.put(103, MembershipOutcome.NOT_FOUND);
+
+        BDDMockito.given(meetupService.getMeetupById(Mockito.anyInt())).willReturn(Optional.ofNullable(meetup));
+        BDDMockito.given(membershipService.joinAll(Mockito.any(Meetup.class), Mockito.anyCollection())).willReturn(outcomes);
+
+        String json = new ObjectMapper().writeValueAsString(bulkEnrollmentDTO);
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .post(MEETUP_API.concat("/" + meetup.getId() + "/registrations:batch"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(json);
+
+        mockMvc
+                .perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("meetupId").value(meetup.getId()))
+                .andExpect(jsonPath("joined").value(1))
+                .andExpect(jsonPath("results", Matchers.hasSize(3)))
+                .andExpect(jsonPath("results[0].registrationId").value(101))
+                .andExpect(jsonPath("results[0].outcome").value("JOINED"))
+                .andExpect(jsonPath("results[1].outcome").value("ALREADY_JOINED"))
+                .andExpect(jsonPath("results[2].outcome").value("NOT_FOUND"));
+    }
+
+    @Test
+    @DisplayName("Should not enroll registrations on a non existing meetup")
+    public void notEnrollNotFound() throws Exception {
+        BulkEnrollmentDTO bulkEnrollmentDTO = BulkEnrollmentDTO.builder()
+                .registrationIds(List.of(101))
+                .build();
+
+        BDDMockito.given(meetupService.getMeetupById(Mockito.anyInt())).willReturn(Optional.empty());
+
+        String json = new ObjectMapper().writeValueAsString(bulkEnrollmentDTO);
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .post(MEETUP_API.concat("/99/registrations:batch"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(json);
+
+        mockMvc
+                .perform(request)
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Should not enroll more registrations than the batch limit in one call")
+    public void notEnrollTooMany() throws Exception {
+        BulkEnrollmentDTO bulkEnrollmentDTO = BulkEnrollmentDTO.builder()
+                .registrationIds(IntStream.rangeClosed(1, BulkEnrollmentDTO.MAX_REGISTRATIONS + 1).boxed().collect(Collectors.toList()))
+                .build();
+
+        String json = new ObjectMapper().writeValueAsString(bulkEnrollmentDTO);
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .post(MEETUP_API.concat("/99/registrations:batch"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(json);
+
+        mockMvc
+                .perform(request)
+                .andExpect(status().isBadRequest());
+        Mockito.verify(membershipService, Mockito.never()).joinAll(Mockito.any(Meetup.class), Mockito.anyCollection());
+    }
+
+    @Test
+    @DisplayName("Should subscribe a registration to every meetup of a track")
+    public void subscribeTrack() throws Exception {
+        Meetup meetup = createValidMeetup();
+        TrackSubscriptionDTO trackSubscriptionDTO = TrackSubscriptionDTO.builder()
+                .registrationId(101)
+                .meetupIds(List.of(meetup.getId()))
+                .build();
+
+        BDDMockito.given(meetupService.subscribeTrack(101, List.of(meetup.getId()))).willReturn(List.of(meetup));
+
+        String json = new ObjectMapper().writeValueAsString(trackSubscriptionDTO);
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .put(MEETUP_API.concat("/track/subscribe"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(json);
+
+        mockMvc
+                .perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", Matchers.hasSize(1)))
+                .andExpect(jsonPath("[0].id").value(meetup.getId()));
+    }
+
+    @Test
+    @DisplayName("Should not subscribe a track with a date conflict")
+    public void notSubscribeTrackConflict() throws Exception {
+        TrackSubscriptionDTO trackSubscriptionDTO = TrackSubscriptionDTO.builder()
+                .registrationId(101)
+                .meetupIds(List.of(1, 2))
+                .build();
+
+        BDDMockito.given(meetupService.subscribeTrack(Mockito.anyInt(), Mockito.anyList()))
+                .willThrow(new BusinessException("A trilha tem mais de uma Meetup no dia 01/01/2022"));
+
+        String json = new ObjectMapper().writeValueAsString(trackSubscriptionDTO);
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .put(MEETUP_API.concat("/track/subscribe"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(json);
+
+        mockMvc
+                .perform(request)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("errors[0]").value("A trilha tem mais de uma Meetup no dia 01/01/2022"));
+    }
+
+    @Test
+    @DisplayName("Should not subscribe a track with a null meetup id")
+    public void notSubscribeTrackNullMeetupId() throws Exception {
+        String json = "{\"registrationId\": 101, \"meetupIds\": [1, null]}";
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .put(MEETUP_API.concat("/track/subscribe"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(json);
+
+        mockMvc
+                .perform(request)
+                .andExpect(status().isBadRequest());
+        Mockito.verify(meetupService, Mockito.never()).subscribeTrack(Mockito.anyInt(), Mockito.anyList());
+    }
+
     @Test
     @DisplayName("Should unsubscribe on a meetup")
     public void unsubscribe() throws Exception {
@@ -412,7 +828,7 @@ public class MeetupControllerTest {
         BDDMockito.given(meetupService.getMeetupById(Mockito.anyInt())).willReturn(Optional.ofNullable(meetup));
         BDDMockito.given(registrationService.getRegistrationById(Mockito.anyInt())).willReturn(Optional.ofNullable(registration));
 
-        BDDMockito.given(meetupService.update(meetup)).willReturn(updated_meetup);
+        BDDMockito.given(membershipService.leave(Mockito.any(Meetup.class), Mockito.any(Registration.class))).willReturn(updated_meetup);
 
         String json = new ObjectMapper().writeValueAsString(registrationFilterDTO);
 
@@ -2,9 +2,14 @@ package com.bootcamp.microservicemeetup.controller;
 
 import com.bootcamp.microservicemeetup.controller.resource.RegistrationController;
 import com.bootcamp.microservicemeetup.exception.BusinessException;
+import com.bootcamp.microservicemeetup.exception.PasswordHashingBusyException;
 import com.bootcamp.microservicemeetup.controller.dto.RegistrationDTO;
 import com.bootcamp.microservicemeetup.model.entity.Registration;
+import com.bootcamp.microservicemeetup.security.TokenRevocationList;
 import com.bootcamp.microservicemeetup.security.UserDetailServiceImpl;
+import com.bootcamp.microservicemeetup.service.TokenService;
+import com.bootcamp.microservicemeetup.service.CountStrategy;
+import com.bootcamp.microservicemeetup.service.CountedPage;
 import com.bootcamp.microservicemeetup.service.RegistrationService;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.DisplayName;
@@ -18,6 +23,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
@@ -51,6 +57,12 @@ public class RegistrationControllerTest {
     @MockBean
     private UserDetailServiceImpl userDetailService;
 
+    @MockBean
+    private TokenService tokenService;
+
+    @MockBean
+    private TokenRevocationList tokenRevocationList;
+
     @MockBean
     RegistrationService registrationService;
 
@@ -128,6 +140,28 @@ public class RegistrationControllerTest {
                 .andExpect(jsonPath("errors[0]").value("Registration already created!"));
     }
 
+    @Test
+    @DisplayName("Should answer 503 with Retry-After when the password hashing pool is saturated")
+    public void createRegistrationWhenHashingIsBusy() throws Exception {
+
+        RegistrationDTO dto = createNewRegistration();
+        String json = new ObjectMapper().writeValueAsString(dto);
+
+        BDDMockito.given(registrationService.save(any(Registration.class)))
+                .willThrow(new PasswordHashingBusyException("Servidor ocupado, tente novamente em instantes!", 1));
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .post(REGISTRATION_API)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(json);
+
+        mockMvc.perform(request)
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("errors[0]").value("Servidor ocupado, tente novamente em instantes!"));
+    }
+
     @Test
     @DisplayName("Should get registration informations")
     public void getRegistrationTest() throws Exception {
@@ -156,6 +190,29 @@ public class RegistrationControllerTest {
 
     }
 
+    @Test
+    @DisplayName("Should get only the requested fields of a registration without touching its meetups")
+    public void getRegistrationFieldsTest() throws Exception {
+
+        Registration registration = Mockito.spy(Registration.builder()
+                .id(11)
+                .name(createNewRegistration().getName())
+                .dateOfRegistration(createNewRegistration().getDateOfRegistration())
+                .registration(createNewRegistration().getRegistration()).build());
+
+        BDDMockito.given(registrationService.getRegistrationById(11)).willReturn(Optional.of(registration));
+
+        mockMvc.perform(MockMvcRequestBuilders.get(REGISTRATION_API.concat("/11?fields=id,name"))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("id").value(11))
+                .andExpect(jsonPath("name").value(createNewRegistration().getName()))
+                .andExpect(jsonPath("registration").doesNotExist())
+                .andExpect(jsonPath("meetups").doesNotExist());
+
+        Mockito.verify(registration, Mockito.never()).getMeetups();
+    }
+
     @Test
     @DisplayName("Should return NOT FOUND when the registration doesn't exists")
     public void registrationNotFoundTest() throws Exception {
@@ -266,6 +323,57 @@ public class RegistrationControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    @DisplayName("Should scroll registrations with a cursor and no count")
+    public void scrollRegistrations() throws Exception {
+        Registration registration = Registration.builder().id(11).name("Isis Oliveira").registration("001").build();
+
+        BDDMockito.given(registrationService.scroll(Mockito.any(Registration.class), Mockito.isNull(), Mockito.eq(1)))
+                .willReturn(new SliceImpl<Registration>(Arrays.asList(registration), PageRequest.of(0, 1), true));
+
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders
+                .get(REGISTRATION_API.concat("/scroll?size=1"))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mockMvc
+                .perform(requestBuilder)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("content", Matchers.hasSize(1)))
+                .andExpect(jsonPath("content[0].id").value(11))
+                .andExpect(jsonPath("hasNext").value(true))
+                .andExpect(jsonPath("next").isNotEmpty());
+    }
+
+    @Test
+    @DisplayName("Should search registrations by name through the name index")
+    public void searchRegistrations() throws Exception {
+        Registration registration = Registration.builder().id(11).name("Ísis Oliveira").registration("001").build();
+
+        BDDMockito.given(registrationService.searchByName(Mockito.eq("isis oli"), Mockito.any(Pageable.class)))
+                .willReturn(new CountedPage<Registration>(Arrays.asList(registration), PageRequest.of(0, 20), 1, true));
+
+        mockMvc
+                .perform(MockMvcRequestBuilders.get(REGISTRATION_API.concat("/search?name=isis oli"))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("content", Matchers.hasSize(1)))
+                .andExpect(jsonPath("content[0].name").value("Ísis Oliveira"))
+                .andExpect(jsonPath("totalElements").value(1))
+                .andExpect(jsonPath("totalExact").value(true));
+    }
+
+    @Test
+    @DisplayName("Should not search registrations by a blank name")
+    public void notSearchBlankName() throws Exception {
+        mockMvc
+                .perform(MockMvcRequestBuilders.get(REGISTRATION_API.concat("/search?name= "))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("errors[0]").value("Informe o nome para a busca!"));
+
+        Mockito.verify(registrationService, Mockito.never()).searchByName(Mockito.anyString(), Mockito.any(Pageable.class));
+    }
+
     @Test
     @DisplayName("Should filter registration")
     public void findRegistrationTest() throws Exception {
@@ -278,8 +386,8 @@ public class RegistrationControllerTest {
                 .dateOfRegistration(createNewRegistration().getDateOfRegistration())
                 .registration(createNewRegistration().getRegistration()).build();
 
-        BDDMockito.given(registrationService.find(Mockito.any(Registration.class), Mockito.any(Pageable.class)))
-                .willReturn(new PageImpl<Registration>(Arrays.asList(registration), PageRequest.of(0, 100), 1));
+        BDDMockito.given(registrationService.find(Mockito.any(Registration.class), Mockito.any(Pageable.class), Mockito.eq(CountStrategy.EXACT)))
+                .willReturn(new CountedPage<Registration>(Arrays.asList(registration), PageRequest.of(0, 100), 1, true));
 
 
         String queryString = String.format("?name=%s&dateOfRegistration=%s&page=0&size=100",
@@ -295,6 +403,7 @@ public class RegistrationControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("content", Matchers.hasSize(1)))
                 .andExpect(jsonPath("totalElements").value(1))
+                .andExpect(jsonPath("totalExact").value(true))
                 .andExpect(jsonPath("pageable.pageSize").value(100))
                 .andExpect(jsonPath("pageable.pageNumber").value(0));
 
@@ -1,7 +1,17 @@
 package com.bootcamp.microservicemeetup.repository;
 
+import com.bootcamp.microservicemeetup.controller.dto.MeetupDTO;
+import com.bootcamp.microservicemeetup.model.RosterEntry;
 import com.bootcamp.microservicemeetup.model.entity.Meetup;
 import com.bootcamp.microservicemeetup.model.entity.Registration;
+import com.bootcamp.microservicemeetup.repository.specification.MeetupSpecifications;
+import com.bootcamp.microservicemeetup.service.CountStrategy;
+import com.bootcamp.microservicemeetup.service.MeetupService;
+import com.bootcamp.microservicemeetup.service.impl.MeetupSearchIndexImpl;
+import com.bootcamp.microservicemeetup.service.impl.MeetupServiceImpl;
+import com.bootcamp.microservicemeetup.service.impl.PageCountServiceImpl;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -9,9 +19,17 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -29,6 +47,12 @@ public class MeetupRepositoryTest {
     @Autowired
     MeetupRepository repository;
 
+    @Autowired
+    RegistrationRepository registrationRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
     @Test
     @DisplayName("Should return true when exists a meetup already created.")
     public void returnTrueWhenMeetupExists() {
@@ -96,6 +120,191 @@ public class MeetupRepositoryTest {
         assertThat(deletedMeetup).isNull();
     }
 
+    @Test
+    @DisplayName("Should scroll meetups after a given id without counting")
+    public void scrollTest() {
+        for (int i = 1; i <= 5; i++) {
+            entityManager.persist(Meetup.builder().event("Evento " + i).meetupDate("01/01/2022").build());
+        }
+        entityManager.persist(Meetup.builder().event("Outro").meetupDate("01/01/2022").build());
+        Specification<Meetup> filter = MeetupSpecifications.of(Meetup.builder().event("evento").build());
+
+        Slice<Meetup> first = repository.scroll(Meetup.class, filter, null, 3);
+        Slice<Meetup> second = repository.scroll(Meetup.class, filter, first.getContent().get(2).getId(), 3);
+
+        assertThat(first.getContent()).extracting(Meetup::getEvent).containsExactly("Evento 1", "Evento 2", "Evento 3");
+        assertThat(first.hasNext()).isTrue();
+        assertThat(second.getContent()).extracting(Meetup::getEvent).containsExactly("Evento 4", "Evento 5");
+        assertThat(second.hasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should page meetups by offset reading one row ahead instead of counting")
+    public void findSliceTest() {
+        for (int i = 1; i <= 5; i++) {
+            entityManager.persist(Meetup.builder().event("Evento " + i).meetupDate("01/01/2022").build());
+        }
+        Specification<Meetup> filter = MeetupSpecifications.of(Meetup.builder().build());
+
+        Slice<Meetup> middle = repository.findSlice(Meetup.class, filter, PageRequest.of(1, 2, Sort.by(Sort.Direction.DESC, "event")));
+        Slice<Meetup> last = repository.findSlice(Meetup.class, filter, PageRequest.of(2, 2, Sort.by(Sort.Direction.DESC, "event")));
+
+        assertThat(middle.getContent()).extracting(Meetup::getEvent).containsExactly("Evento 3", "Evento 2");
+        assertThat(middle.hasNext()).isTrue();
+        assertThat(last.getContent()).extracting(Meetup::getEvent).containsExactly("Evento 1");
+        assertThat(last.hasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should restrict a filter to the given ids")
+    public void findPageByIdsTest() {
+        Meetup first = entityManager.persist(Meetup.builder().event("Java").meetupDate("01/01/2022").build());
+        Meetup second = entityManager.persist(Meetup.builder().event("Java").meetupDate("02/01/2022").build());
+        Meetup third = entityManager.persist(Meetup.builder().event("Java").meetupDate("01/01/2022").build());
+        Specification<Meetup> filter = MeetupSpecifications.of(Meetup.builder().meetupDate("01/01/2022").build());
+
+        Page<Meetup> page = repository.findAll(filter.and(MeetupSpecifications.idIn(List.of(first.getId(), second.getId()))),
+                PageRequest.of(0, 10));
+
+        assertThat(page.getContent()).containsExactly(first);
+        assertThat(page.getTotalElements()).isEqualTo(1);
+        assertThat(repository.count(filter.and(MeetupSpecifications.idIn(List.of())))).isZero();
+        assertThat(repository.findEventsAfter(first.getId(), PageRequest.of(0, 10)))
+                .extracting(row -> row[0]).containsExactly(second.getId(), third.getId());
+    }
+
+    @Test
+    @DisplayName("Should match like the old example filter, escaping wildcards")
+    public void specificationMatchesContainingIgnoreCase() {
+        Meetup java = entityManager.persist(Meetup.builder().event("Java 100% prático").meetupDate("01/01/2022").capacity(10).build());
+        entityManager.persist(Meetup.builder().event("Java básico").meetupDate("01/01/2022").capacity(20).build());
+
+        assertThat(repository.findAll(MeetupSpecifications.of(Meetup.builder().event("JAVA").build()))).hasSize(2);
+        assertThat(repository.findAll(MeetupSpecifications.of(Meetup.builder().event("100%").build()))).containsExactly(java);
+        assertThat(repository.findAll(MeetupSpecifications.of(Meetup.builder().event("va_1").build()))).isEmpty();
+        assertThat(repository.findAll(MeetupSpecifications.of(Meetup.builder().event("java").capacity(10).build()))).containsExactly(java);
+    }
+
+    @Test
+    @DisplayName("Should reuse one query plan for every value of the same filter combination")
+    public void specificationReusesQueryPlan() {
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        repository.findAll(MeetupSpecifications.of(Meetup.builder().event("evento").capacity(99).build()));
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        for (int i = 0; i < 10; i++) {
+            repository.findAll(MeetupSpecifications.of(Meetup.builder().event("evento " + i).capacity(i).build()));
+        }
+
+        // valores viram parâmetros, então a mesma combinação de campos não gera plano novo
+        assertThat(statistics.getQueryPlanCacheMissCount()).isZero();
+        assertThat(statistics.getQueryPlanCacheHitCount()).isEqualTo(10);
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    @DisplayName("Should find meetups in a range of days whatever the text format of the date")
+    public void findBetweenDays() {
+        Meetup before = entityManager.persist(Meetup.builder().event("Antes").meetupDate("31/12/2021").build());
+        Meetup first = entityManager.persist(Meetup.builder().event("Primeira").meetupDate("2022-01-01").build());
+        Meetup last = entityManager.persist(Meetup.builder().event("Última").meetupDate("07/01/2022").build());
+
+        assertThat(repository.findAll(MeetupSpecifications.between(LocalDate.of(2022, 1, 1), LocalDate.of(2022, 1, 7))))
+                .containsExactlyInAnyOrder(first, last);
+        assertThat(repository.findAll(MeetupSpecifications.between(null, LocalDate.of(2021, 12, 31))))
+                .containsExactly(before);
+        assertThat(repository.findAll(MeetupSpecifications.between(LocalDate.of(2022, 1, 2), null)))
+                .containsExactly(last);
+    }
+
+    @Test
+    @DisplayName("Should fill the day of old meetups in batches and skip dates it cannot read")
+    public void backfillMeetupDay() {
+        Meetup slash = entityManager.persist(Meetup.builder().event("A").meetupDate("10/10/2021").build());
+        Meetup iso = entityManager.persist(Meetup.builder().event("B").meetupDate("2021-10-10").build());
+        Meetup other = entityManager.persist(Meetup.builder().event("C").meetupDate("11/10/2021").build());
+        Meetup unreadable = entityManager.persist(Meetup.builder().event("D").meetupDate("amanhã").build());
+        entityManager.flush();
+        entityManager.getEntityManager().createNativeQuery("update meetups set meetup_day = null").executeUpdate();
+        entityManager.clear();
+
+        int filled = new MeetupDayBackfill(repository, transactionManager, 2).run();
+        entityManager.clear();
+
+        assertThat(filled).isEqualTo(3);
+        assertThat(entityManager.find(Meetup.class, slash.getId()).getMeetupDay()).isEqualTo(LocalDate.of(2021, 10, 10));
+        assertThat(entityManager.find(Meetup.class, iso.getId()).getMeetupDay()).isEqualTo(LocalDate.of(2021, 10, 10));
+        assertThat(entityManager.find(Meetup.class, other.getId()).getMeetupDay()).isEqualTo(LocalDate.of(2021, 10, 11));
+        assertThat(repository.findWithoutDayAfter(0, PageRequest.of(0, 10)))
+                .extracting(row -> row[0]).containsExactly(unreadable.getId());
+    }
+
+    @Test
+    @DisplayName("Should page the roster of a meetup reading only the registration columns")
+    public void findRosterTest() {
+        Meetup meetup = entityManager.persist(createNewMeetup());
+        Meetup other = entityManager.persist(Meetup.builder().event("Outro evento").meetupDate("02/01/2022").build());
+        for (String name : List.of("Carla", "Ana", "Bruno")) {
+            Registration registration = entityManager.persist(Registration.builder()
+                    .name(name)
+                    .dateOfRegistration("01/01/2022")
+                    .registration("reg-" + name)
+                    .password("123")
+                    .build());
+            registrationRepository.insertMembership(registration.getId(), meetup.getId());
+        }
+        Registration outsider = entityManager.persist(Registration.builder()
+                .name("Daniel")
+                .dateOfRegistration("01/01/2022")
+                .registration("reg-Daniel")
+                .password("123")
+                .build());
+        registrationRepository.insertMembership(outsider.getId(), other.getId());
+
+        Page<RosterEntry> first = repository.findRoster(meetup.getId(), PageRequest.of(0, 2, Sort.by("name")));
+        Page<RosterEntry> second = repository.findRoster(meetup.getId(), PageRequest.of(1, 2, Sort.by("name")));
+
+        assertThat(first.getTotalElements()).isEqualTo(3);
+        assertThat(first.getContent()).extracting(RosterEntry::getName).containsExactly("Ana", "Bruno");
+        assertThat(second.getContent()).extracting(RosterEntry::getRegistration).containsExactly("reg-Carla");
+    }
+
+    @Test
+    @DisplayName("Should list a page of meetups with their registrations in a constant number of statements")
+    public void findPageWithRegistrations() {
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        MeetupService service = new MeetupServiceImpl(repository, null, null,
+                new PageCountServiceImpl(30, 100), new MeetupSearchIndexImpl(repository, 1000, 100));
+        for (int i = 0; i < 100; i++) {
+            Meetup meetup = entityManager.persist(Meetup.builder().event("Evento " + i).meetupDate("01/01/2022").build());
+            for (int j = 0; j < 2; j++) {
+                Registration registration = entityManager.persist(Registration.builder()
+                        .name("Pessoa " + j)
+                        .dateOfRegistration("01/01/2022")
+                        .registration("reg-" + i + "-" + j)
+                        .password("123")
+                        .build());
+                registrationRepository.insertMembership(registration.getId(), meetup.getId());
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        List<MeetupDTO> page = service.find(Meetup.builder().build(), null, null, PageRequest.of(0, 100), CountStrategy.EXACT, true)
+                .map(MeetupDTO::from)
+                .getContent();
+
+        // página, count e uma única carga das registrations de todas as Meetups
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(page).hasSize(100).allSatisfy(meetup -> assertThat(meetup.getRegistrations()).hasSize(2));
+        statistics.setStatisticsEnabled(false);
+    }
+
     private Meetup createNewMeetup() {
         return Meetup.builder()
                 .event("Evento teste")
@@ -1,6 +1,8 @@
 package com.bootcamp.microservicemeetup.repository;
 
+import com.bootcamp.microservicemeetup.model.entity.Meetup;
 import com.bootcamp.microservicemeetup.model.entity.Registration;
+import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -8,9 +10,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -98,6 +104,122 @@ public class RegistrationRepositoryTest {
         assertThat(deleteRegistration).isNull();
     }
 
+    @Test
+    @DisplayName("Should insert and delete only the membership row of a registration in a meetup")
+    public void insertAndDeleteMembership() {
+
+        Registration registration_attribute = entityManager.persist(createNewRegistration("teste"));
+        Meetup meetup = entityManager.persist(Meetup.builder()
+                .event("Evento teste")
+                .meetupDate("01/01/2022")
+                .build());
+
+        int inserted = repository.insertMembership(registration_attribute.getId(), meetup.getId());
+
+        assertThat(inserted).isEqualTo(1);
+        assertThat(repository.existsByIdAndMeetups_Id(registration_attribute.getId(), meetup.getId())).isTrue();
+
+        int deleted = repository.deleteMembership(registration_attribute.getId(), meetup.getId());
+
+        assertThat(deleted).isEqualTo(1);
+        assertThat(repository.existsByIdAndMeetups_Id(registration_attribute.getId(), meetup.getId())).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should insert the memberships of a meetup in one batch and find them set-wise")
+    public void insertMembershipsInBatch() {
+
+        Registration first = entityManager.persist(createNewRegistration("teste1"));
+        Registration second = entityManager.persist(createNewRegistration("teste2"));
+        Meetup meetup = entityManager.persist(Meetup.builder()
+                .event("Evento teste")
+                .meetupDate("01/01/2022")
+                .build());
+
+        repository.insertMemberships(meetup.getId(), List.of(first.getId(), second.getId()));
+
+        List<Integer> ids = List.of(first.getId(), second.getId(), 999);
+        assertThat(repository.findIdsByIdIn(ids)).containsExactlyInAnyOrder(first.getId(), second.getId());
+        assertThat(repository.findMemberIds(meetup.getId(), ids)).containsExactlyInAnyOrder(first.getId(), second.getId());
+        assertThat(repository.findIdsWithMeetupOn(LocalDate.of(2022, 1, 1), ids)).containsExactlyInAnyOrder(first.getId(), second.getId());
+        assertThat(repository.findIdsWithMeetupOn(LocalDate.of(2022, 1, 2), ids)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should undo the whole batch when one of the memberships already exists")
+    public void insertMembershipsUndoesBatchOnDuplicate() {
+
+        Registration first = entityManager.persist(createNewRegistration("teste1"));
+        Registration second = entityManager.persist(createNewRegistration("teste2"));
+        Meetup meetup = entityManager.persist(Meetup.builder()
+                .event("Evento teste")
+                .meetupDate("01/01/2022")
+                .build());
+        repository.insertMemberships(meetup.getId(), List.of(second.getId()));
+
+        Throwable exception = Assertions.catchThrowable(() ->
+                repository.insertMemberships(meetup.getId(), List.of(first.getId(), second.getId())));
+
+        assertThat(exception).isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(repository.findMemberIds(meetup.getId(), List.of(first.getId(), second.getId())))
+                .containsExactly(second.getId());
+    }
+
+    @Test
+    @DisplayName("Should find a same-day meetup in the registration agenda")
+    public void existsMeetupOnDate() {
+
+        Registration registration_attribute = entityManager.persist(createNewRegistration("teste"));
+        for (int day = 1; day <= 28; day++) {
+            Meetup meetup = entityManager.persist(Meetup.builder()
+                    .event("Evento " + day)
+                    .meetupDate(String.format("%02d/02/2022", day))
+                    .build());
+            repository.insertMembership(registration_attribute.getId(), meetup.getId());
+        }
+
+        assertThat(repository.existsByIdAndMeetups_MeetupDay(registration_attribute.getId(), LocalDate.of(2022, 2, 14))).isTrue();
+        assertThat(repository.existsByIdAndMeetups_MeetupDay(registration_attribute.getId(), LocalDate.of(2022, 3, 14))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should find the meetups of the agenda that collide with a track in one query")
+    public void findAgendaConflicts() {
+
+        Registration registration_attribute = entityManager.persist(createNewRegistration("teste"));
+        Meetup joined = entityManager.persist(Meetup.builder().event("Evento 1").meetupDate("01/02/2022").build());
+        Meetup sameDay = entityManager.persist(Meetup.builder().event("Evento 2").meetupDate("02/02/2022").build());
+        Meetup free = entityManager.persist(Meetup.builder().event("Evento 3").meetupDate("03/02/2022").build());
+        Meetup legacy = entityManager.persist(Meetup.builder().event("Evento 4").meetupDate("dez/2021").build());
+        repository.insertRegistrationMeetups(registration_attribute.getId(), List.of(joined.getId(), sameDay.getId(), legacy.getId()));
+
+        List<Meetup> conflicts = repository.findAgendaConflicts(registration_attribute.getId(),
+                List.of(joined.getId(), free.getId()), List.of(LocalDate.of(2022, 2, 2), LocalDate.of(2022, 2, 3)),
+                List.of("01/02/2022", "03/02/2022"));
+
+        assertThat(conflicts).extracting(Meetup::getId).containsExactlyInAnyOrder(joined.getId(), sameDay.getId());
+        assertThat(repository.findAgendaConflicts(registration_attribute.getId(), List.of(free.getId()),
+                Collections.singletonList(null), List.of("03/02/2022", "dez/2021")))
+                .extracting(Meetup::getId).containsExactly(legacy.getId());
+        assertThat(repository.findIdsWithMeetupDate("dez/2021", List.of(registration_attribute.getId())))
+                .containsExactly(registration_attribute.getId());
+        assertThat(repository.existsByIdAndMeetups_MeetupDate(registration_attribute.getId(), "dez/2021")).isTrue();
+        assertThat(repository.existsByIdAndMeetups_MeetupDate(registration_attribute.getId(), "jan/2022")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should load only login, password hash and role names of a registration")
+    public void findPrincipalRows() {
+
+        entityManager.persist(createNewRegistration("teste"));
+
+        List<Object[]> rows = repository.findPrincipalRows("teste");
+
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0)).containsExactly("teste", "123", null);
+        assertThat(repository.findPrincipalRows("outro")).isEmpty();
+    }
+
     private Registration createNewRegistration(String registration) {
         return Registration.builder()
                 .name("Isis Oliveira")
@@ -0,0 +1,78 @@
+package com.bootcamp.microservicemeetup.security;
+
+import com.bootcamp.microservicemeetup.exception.PasswordHashingBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class BoundedPasswordEncoderTest {
+
+    BoundedPasswordEncoder passwordEncoder;
+
+    @AfterEach
+    public void tearDown() {
+        passwordEncoder.destroy();
+    }
+
+    @Test
+    @DisplayName("Should hash and match passwords on the dedicated pool")
+    public void encodeAndMatch() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        passwordEncoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 2, 4, 1, meterRegistry);
+
+        String hash = passwordEncoder.encode("123");
+
+        assertThat(passwordEncoder.matches("123", hash)).isTrue();
+        assertThat(passwordEncoder.matches("321", hash)).isFalse();
+        assertThat(meterRegistry.get("security.password.hashing.latency").timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should reject at once when the hashing queue is full")
+    public void rejectWhenQueueIsFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder slow = new BCryptPasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hash";
+            }
+        };
+        passwordEncoder = new BoundedPasswordEncoder(slow, 1, 1, 2, new SimpleMeterRegistry());
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> passwordEncoder.encode("1"));
+        started.await();
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> passwordEncoder.encode("2"));
+        while (passwordEncoder.queueDepth() == 0) {
+            Thread.onSpinWait();
+        }
+
+        Throwable exception = Assertions.catchThrowable(() -> passwordEncoder.encode("3"));
+        release.countDown();
+
+        assertThat(exception).isInstanceOf(PasswordHashingBusyException.class);
+        assertThat(((PasswordHashingBusyException) exception).getRetryAfterSeconds()).isEqualTo(2);
+        assertThat(running.get()).isEqualTo("hash");
+        assertThat(queued.get()).isEqualTo("hash");
+    }
+}
@@ -0,0 +1,84 @@
+package com.bootcamp.microservicemeetup.security;
+
+import com.bootcamp.microservicemeetup.controller.dto.TokenDTO;
+import com.bootcamp.microservicemeetup.service.TokenService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class JWTAutenticationFilterTest {
+
+    JWTAutenticationFilter filter;
+
+    @MockBean
+    AuthenticationManager authenticationManager;
+
+    @MockBean
+    TokenService tokenService;
+
+    @BeforeEach
+    public void setUp() {
+        this.filter = new JWTAutenticationFilter(authenticationManager, tokenService,
+                new LoginRateLimiter(60, 2, Duration.ofMinutes(1), 1000),
+                new LoginRateLimiter(60, 1, Duration.ofMinutes(1), 1000));
+    }
+
+    @Test
+    @DisplayName("Should read the login body and answer the tokens as JSON")
+    public void login() throws Exception {
+        Authentication authentication = new UsernamePasswordAuthenticationToken("001", null,
+                RoleAuthorities.of(List.of("ROLE_USER")));
+        Mockito.when(authenticationManager.authenticate(Mockito.any())).thenReturn(authentication);
+        Mockito.when(tokenService.issue("001", List.of("ROLE_USER")))
+                .thenReturn(TokenDTO.builder().accessToken("access").refreshToken("refresh").expiresIn(3600).build());
+
+        MockHttpServletRequest request = loginRequest("001");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        Authentication result = filter.attemptAuthentication(request, response);
+        filter.successfulAuthentication(request, response, null, result);
+
+        Mockito.verify(authenticationManager).authenticate(new UsernamePasswordAuthenticationToken("001", "123"));
+        assertThat(response.getContentType()).isEqualTo("application/json");
+        assertThat(response.getContentAsString())
+                .isEqualTo("{\"accessToken\":\"access\",\"refreshToken\":\"refresh\",\"expiresIn\":3600}");
+    }
+
+    @Test
+    @DisplayName("Should answer 429 without authenticating once the registration exhausted its attempts")
+    public void rejectTooManyAttempts() throws Exception {
+        filter.attemptAuthentication(loginRequest("001"), new MockHttpServletResponse());
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        Authentication result = filter.attemptAuthentication(loginRequest("001"), response);
+
+        assertThat(result).isNull();
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("1");
+        Mockito.verify(authenticationManager, Mockito.times(1)).authenticate(Mockito.any());
+    }
+
+    private MockHttpServletRequest loginRequest(String registration) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/login");
+        request.setContent(("{\"registration\":\"" + registration + "\",\"password\":\"123\"}").getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
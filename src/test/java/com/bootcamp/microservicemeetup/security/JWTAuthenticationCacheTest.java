@@ -0,0 +1,112 @@
+package com.bootcamp.microservicemeetup.security;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.SignatureVerificationException;
+import com.auth0.jwt.exceptions.TokenExpiredException;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class JWTAuthenticationCacheTest {
+
+    JWTAuthenticationCache authenticationCache;
+
+    TokenRevocationList revocationList;
+
+    @BeforeEach
+    public void setUp() {
+        this.revocationList = new TokenRevocationList();
+        this.authenticationCache = new JWTAuthenticationCache(100, revocationList);
+    }
+
+    @Test
+    @DisplayName("Should verify a token once and give every request its own authentication")
+    public void reuseVerifiedToken() {
+        String token = createToken("001", 3600000, JWTAutenticationFilter.TOKEN_SENHA);
+
+        UsernamePasswordAuthenticationToken first = authenticationCache.get(token);
+        first.setDetails("request 1");
+        UsernamePasswordAuthenticationToken second = authenticationCache.get(token);
+
+        assertThat(first.getPrincipal()).isEqualTo("001");
+        assertThat(first.isAuthenticated()).isTrue();
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getDetails()).isNull();
+        assertThat(second.getPrincipal()).isEqualTo("001");
+        assertThat(second.getAuthorities()).containsExactlyElementsOf(first.getAuthorities());
+    }
+
+    @Test
+    @DisplayName("Should rebuild the authorities from the roles claim using shared instances")
+    public void authoritiesFromRolesClaim() {
+        String token = JWT.create()
+                .withSubject("001")
+                .withArrayClaim(RoleAuthorities.CLAIM, new String[]{"ROLE_ADMIN", "ROLE_USER"})
+                .withExpiresAt(new Date(System.currentTimeMillis() + 3600000))
+                .sign(Algorithm.HMAC512(JWTAutenticationFilter.TOKEN_SENHA));
+
+        UsernamePasswordAuthenticationToken authentication = authenticationCache.get(token);
+
+        assertThat(authentication.getAuthorities()).extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_ADMIN", "ROLE_USER");
+        assertThat(authentication.getAuthorities().iterator().next()).isSameAs(RoleAuthorities.of("ROLE_ADMIN"));
+    }
+
+    @Test
+    @DisplayName("Should stop authenticating a cached token once its jti is revoked")
+    public void rejectRevokedToken() {
+        long expiresAt = System.currentTimeMillis() + 3600000;
+        String token = JWT.create()
+                .withSubject("001")
+                .withJWTId("jti-1")
+                .withExpiresAt(new Date(expiresAt))
+                .sign(Algorithm.HMAC512(JWTAutenticationFilter.TOKEN_SENHA));
+
+        assertThat(authenticationCache.get(token)).isNotNull();
+
+        revocationList.revoke("jti-1", expiresAt);
+
+        assertThat(authenticationCache.get(token)).isNull();
+        assertThat(revocationList.isRevoked("jti-2")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should not cache a token signed with another secret")
+    public void notCacheInvalidSignature() {
+        String token = createToken("001", 3600000, "outro-segredo");
+
+        Throwable exception = Assertions.catchThrowable(() -> authenticationCache.get(token));
+
+        assertThat(exception).isInstanceOf(SignatureVerificationException.class);
+    }
+
+    @Test
+    @DisplayName("Should not accept an expired token")
+    public void notCacheExpiredToken() {
+        String token = createToken("001", -1000, JWTAutenticationFilter.TOKEN_SENHA);
+
+        Throwable exception = Assertions.catchThrowable(() -> authenticationCache.get(token));
+
+        assertThat(exception).isInstanceOf(TokenExpiredException.class);
+    }
+
+    private String createToken(String subject, long validity, String secret) {
+        return JWT.create()
+                .withSubject(subject)
+                .withExpiresAt(new Date(System.currentTimeMillis() + validity))
+                .sign(Algorithm.HMAC512(secret));
+    }
+}
@@ -0,0 +1,62 @@
+package com.bootcamp.microservicemeetup.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class LoginRateLimiterTest {
+
+    @Test
+    @DisplayName("Should allow the burst and then reject until the bucket refills")
+    public void burstThenReject() {
+        AtomicLong now = new AtomicLong();
+        LoginRateLimiter limiter = new LoginRateLimiter(60, 3, Duration.ofMinutes(10), 1000, now::get);
+
+        assertThat(limiter.tryAcquire("001")).isTrue();
+        assertThat(limiter.tryAcquire("001")).isTrue();
+        assertThat(limiter.tryAcquire("001")).isTrue();
+        assertThat(limiter.tryAcquire("001")).isFalse();
+        assertThat(limiter.retryAfterSeconds("001")).isEqualTo(1);
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        assertThat(limiter.tryAcquire("001")).isTrue();
+        assertThat(limiter.tryAcquire("001")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should keep a separate bucket per key")
+    public void separateKeys() {
+        AtomicLong now = new AtomicLong();
+        LoginRateLimiter limiter = new LoginRateLimiter(60, 1, Duration.ofMinutes(10), 1000, now::get);
+
+        assertThat(limiter.tryAcquire("001")).isTrue();
+        assertThat(limiter.tryAcquire("001")).isFalse();
+        assertThat(limiter.tryAcquire("002")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should never admit more than the burst under concurrent attempts")
+    public void concurrentAttempts() {
+        AtomicLong now = new AtomicLong();
+        LoginRateLimiter limiter = new LoginRateLimiter(10, 5, Duration.ofMinutes(10), 1000, now::get);
+
+        long admitted = IntStream.range(0, 10000)
+                .parallel()
+                .filter(i -> limiter.tryAcquire("127.0.0.1"))
+                .count();
+
+        assertThat(admitted).isEqualTo(5);
+    }
+}
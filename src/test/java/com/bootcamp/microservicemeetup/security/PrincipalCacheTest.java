@@ -0,0 +1,72 @@
+package com.bootcamp.microservicemeetup.security;
+
+import com.bootcamp.microservicemeetup.repository.RegistrationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class PrincipalCacheTest {
+
+    PrincipalCache principalCache;
+
+    @MockBean
+    RegistrationRepository registrationRepository;
+
+    @BeforeEach
+    public void setUp() {
+        this.principalCache = new PrincipalCache(registrationRepository, 100, 600);
+    }
+
+    @Test
+    @DisplayName("Should load a principal once and serve repeated logins from the cache")
+    public void cachePrincipal() {
+        Mockito.when(registrationRepository.findPrincipalRows("001")).thenReturn(List.of(
+                new Object[]{"001", "hash", "ROLE_ADMIN"},
+                new Object[]{"001", "hash", "ROLE_USER"}));
+
+        Optional<AuthenticatedPrincipal> first = principalCache.get("001");
+        Optional<AuthenticatedPrincipal> second = principalCache.get("001");
+
+        assertThat(first).isPresent();
+        assertThat(first.get().getPasswordHash()).isEqualTo("hash");
+        assertThat(first.get().getRoles()).containsExactly("ROLE_ADMIN", "ROLE_USER");
+        assertThat(second.get()).isSameAs(first.get());
+        Mockito.verify(registrationRepository, Mockito.times(1)).findPrincipalRows("001");
+    }
+
+    @Test
+    @DisplayName("Should reload the principal after it is invalidated")
+    public void reloadAfterInvalidate() {
+        Mockito.when(registrationRepository.findPrincipalRows("001")).thenReturn(
+                List.<Object[]>of(new Object[]{"001", "hash", null}))
+                .thenReturn(List.<Object[]>of(new Object[]{"001", "novo-hash", null}));
+
+        principalCache.get("001");
+        principalCache.invalidate("001");
+
+        assertThat(principalCache.get("001").get().getPasswordHash()).isEqualTo("novo-hash");
+        assertThat(principalCache.get("001").get().getRoles()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should not cache an unknown registration")
+    public void notCacheUnknownRegistration() {
+        Mockito.when(registrationRepository.findPrincipalRows("999")).thenReturn(List.of());
+
+        assertThat(principalCache.get("999")).isEmpty();
+        assertThat(principalCache.get("999")).isEmpty();
+        Mockito.verify(registrationRepository, Mockito.times(2)).findPrincipalRows("999");
+    }
+}
@@ -0,0 +1,132 @@
+package com.bootcamp.microservicemeetup.service;
+
+import com.bootcamp.microservicemeetup.model.entity.Meetup;
+import com.bootcamp.microservicemeetup.repository.MeetupRepository;
+import com.bootcamp.microservicemeetup.service.impl.MeetupSearchIndexImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class MeetupSearchIndexTest {
+
+    MeetupSearchIndex searchIndex;
+
+    @MockBean
+    MeetupRepository repository;
+
+    @BeforeEach
+    public void setUp() {
+        this.searchIndex = new MeetupSearchIndexImpl(repository, 2, 2);
+        Mockito.when(repository.findEventsAfter(0, PageRequest.of(0, 2)))
+                .thenReturn(List.of(new Object[]{1, "Java Meetup"}, new Object[]{2, "Spring com Java"}));
+        Mockito.when(repository.findEventsAfter(2, PageRequest.of(0, 2)))
+                .thenReturn(List.<Object[]>of(new Object[]{5, "Kotlin Night"}));
+    }
+
+    @Test
+    @DisplayName("Should not answer before the index is loaded")
+    public void notReady() {
+        assertThat(searchIndex.search("java")).isEmpty();
+        assertThat(searchIndex.suggest("java", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should load every batch and find events containing the text ignoring case")
+    public void rebuildAndSearch() {
+        searchIndex.rebuild();
+
+        assertThat(searchIndex.search("JAVA")).contains(Set.of(1, 2));
+        assertThat(searchIndex.search("lin n")).contains(Set.of(5));
+        assertThat(searchIndex.search("python")).contains(Collections.emptySet());
+    }
+
+    @Test
+    @DisplayName("Should not confirm ids that only share the trigrams of the text")
+    public void searchChecksWholeText() {
+        searchIndex.rebuild();
+        searchIndex.index(Meetup.builder().id(7).event("ava jav").build());
+
+        assertThat(searchIndex.search("java")).contains(Set.of(1, 2));
+    }
+
+    @Test
+    @DisplayName("Should find events ignoring accents in the event and in the text")
+    public void searchIgnoringAccents() {
+        searchIndex.rebuild();
+        searchIndex.index(Meetup.builder().id(6).event("Café com Código").build());
+
+        assertThat(searchIndex.search("cafe")).contains(Set.of(6));
+        assertThat(searchIndex.search("CÓDIGO")).contains(Set.of(6));
+        assertThat(searchIndex.suggest("cafe", 10).get()).extracting(Meetup::getEvent).containsExactly("Café com Código");
+    }
+
+    @Test
+    @DisplayName("Should leave short or unselective texts to the database")
+    public void fallbackToDatabase() {
+        searchIndex.rebuild();
+        searchIndex.index(Meetup.builder().id(8).event("Java Night").build());
+
+        assertThat(searchIndex.search("ja")).isEmpty();
+        assertThat(searchIndex.search("java")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should suggest the first events starting with a prefix in alphabetical order")
+    public void suggest() {
+        searchIndex.rebuild();
+        searchIndex.index(Meetup.builder().id(9).event("Java Avançado").build());
+
+        assertThat(searchIndex.suggest("JA", 10)).hasValueSatisfying(found ->
+                assertThat(found).extracting(Meetup::getId, Meetup::getEvent)
+                        .containsExactly(tuple(9, "Java Avançado"),
+                                tuple(1, "Java Meetup")));
+        assertThat(searchIndex.suggest("ja", 1).get()).extracting(Meetup::getId).containsExactly(9);
+        assertThat(searchIndex.suggest("spring", 10).get()).extracting(Meetup::getId).containsExactly(2);
+
+        searchIndex.index(Meetup.builder().id(9).event("Scala").build());
+        assertThat(searchIndex.suggest("ja", 10).get()).extracting(Meetup::getId).containsExactly(1);
+    }
+
+    @Test
+    @DisplayName("Should reindex an updated event and forget a removed one")
+    public void updateAndRemove() {
+        searchIndex.rebuild();
+
+        searchIndex.index(Meetup.builder().id(1).event("Rust Meetup").build());
+        searchIndex.remove(5);
+
+        assertThat(searchIndex.search("java")).contains(Set.of(2));
+        assertThat(searchIndex.search("rust")).contains(Set.of(1));
+        assertThat(searchIndex.search("kotlin")).contains(Collections.emptySet());
+    }
+
+    @Test
+    @DisplayName("Should keep the postings sorted when ids arrive out of order")
+    public void indexOutOfOrder() {
+        searchIndex.rebuild();
+
+        searchIndex.index(Meetup.builder().id(4).event("Java Day").build());
+        searchIndex.index(Meetup.builder().id(3).event("Java Night").build());
+        searchIndex.index(Meetup.builder().id(3).event("Java Night").build());
+        searchIndex.remove(1);
+        searchIndex.remove(2);
+
+        assertThat(searchIndex.search("java")).contains(Set.of(3, 4));
+        assertThat(searchIndex.search("java n")).contains(Set.of(3));
+    }
+}
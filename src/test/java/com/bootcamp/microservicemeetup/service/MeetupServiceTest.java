@@ -1,26 +1,37 @@
 package com.bootcamp.microservicemeetup.service;
 
 import com.bootcamp.microservicemeetup.exception.BusinessException;
+import com.bootcamp.microservicemeetup.model.RosterEntry;
 import com.bootcamp.microservicemeetup.model.entity.Meetup;
 import com.bootcamp.microservicemeetup.model.entity.Registration;
 import com.bootcamp.microservicemeetup.repository.MeetupRepository;
 import com.bootcamp.microservicemeetup.repository.RegistrationRepository;
+import com.bootcamp.microservicemeetup.service.impl.MeetupSearchIndexImpl;
 import com.bootcamp.microservicemeetup.service.impl.MeetupServiceImpl;
+import com.bootcamp.microservicemeetup.service.impl.PageCountServiceImpl;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.*;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import javax.persistence.criteria.CriteriaBuilder;
+import java.time.LocalDate;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
@@ -31,6 +42,8 @@ public class MeetupServiceTest {
 
     MeetupService meetupService;
 
+    MeetupSearchIndexImpl searchIndex;
+
     @Mock
     Page<Meetup> pageMeetup;
     @Mock
@@ -42,9 +55,17 @@ public class MeetupServiceTest {
     @MockBean
     RegistrationRepository registrationRepository;
 
+    @MockBean
+    SeatReservationService seatReservationService;
+
+    @MockBean
+    MembershipService membershipService;
+
     @BeforeEach
     public void setUp() {
-        this.meetupService = new MeetupServiceImpl(meetupRepository);
+        this.searchIndex = new MeetupSearchIndexImpl(meetupRepository, 1000, 100);
+        this.meetupService = new MeetupServiceImpl(meetupRepository, seatReservationService, membershipService,
+                new PageCountServiceImpl(30, 100), searchIndex);
     }
 
     @Test
@@ -65,23 +86,187 @@ public class MeetupServiceTest {
         assertThat(savedMeetup.getMeetupDate()).isEqualTo("01/01/2022");
     }
 
+    @Test
+    @DisplayName("Should not save a meetup whose date is in no accepted format")
+    public void notSaveInvalidDate() {
+        Meetup meetup = Meetup.builder().event("Evento teste").meetupDate("amanhã").build();
+
+        Throwable exception = Assertions.catchThrowable(() -> meetupService.save(meetup));
+
+        assertThat(exception)
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("Data da Meetup inválida! Use dd/MM/aaaa, dd-MM-aaaa ou aaaa-MM-dd.");
+        Mockito.verify(meetupRepository, Mockito.never()).save(meetup);
+    }
+
+    @Test
+    @DisplayName("Should not find meetups in a date range that ends before it starts")
+    public void notFindInvertedRange() {
+        Throwable exception = Assertions.catchThrowable(() -> meetupService.find(Meetup.builder().build(),
+                LocalDate.of(2022, 2, 1), LocalDate.of(2022, 1, 1), PageRequest.of(0, 10), CountStrategy.EXACT, true));
+
+        assertThat(exception)
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("A data inicial deve ser anterior ou igual à final!");
+    }
+
+    @Test
+    @DisplayName("Should not load the registrations of the page when they are not requested")
+    public void findWithoutRegistrations() {
+        PageRequest page = PageRequest.of(0, 10);
+        Mockito.when(meetupRepository.findAll(Mockito.<Specification<Meetup>>any(), Mockito.eq(page)))
+                .thenReturn(new PageImpl<>(List.of(createMeetup()), page, 1));
+
+        meetupService.find(Meetup.builder().build(), null, null, page, CountStrategy.EXACT, false);
+        meetupService.find(Meetup.builder().build(), null, null, page, CountStrategy.EXACT, true);
+
+        Mockito.verify(meetupRepository, Mockito.times(1)).findWithRegistrationsByIdIn(List.of(99));
+    }
+
     @Test
     @DisplayName("Should findall meetups")
     public void find() {
-        Example<Meetup> example = Example.of(createMeetup(),
-                ExampleMatcher
-                        .matching()
-                        .withIgnoreCase()
-                        .withIgnoreNullValues()
-                        .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING));
-
-        Mockito.when(meetupRepository.findAll(example, pageRequest)).thenReturn(pageMeetup);
+        Mockito.when(meetupRepository.findAll(Mockito.<Specification<Meetup>>any(), Mockito.eq(pageRequest))).thenReturn(pageMeetup);
 
         Page<Meetup> pageReturn = meetupService.find(createMeetup(), pageRequest);
 
         assertThat(pageReturn).isInstanceOf(Page.class);
     }
 
+    @Test
+    @DisplayName("Should count a filter only once with the cached strategy until a meetup is saved")
+    public void findCachedCount() {
+        Meetup filter = Meetup.builder().event("Evento").build();
+        PageRequest firstPage = PageRequest.of(0, 1);
+        Mockito.when(meetupRepository.findSlice(Mockito.eq(Meetup.class), Mockito.<Specification<Meetup>>any(), Mockito.eq(firstPage)))
+                .thenReturn(new SliceImpl<>(List.of(createMeetup()), firstPage, true));
+        Mockito.when(meetupRepository.count(Mockito.<Specification<Meetup>>any())).thenReturn(5L);
+
+        CountedPage<Meetup> first = meetupService.find(filter, null, null, firstPage, CountStrategy.CACHED, true);
+        CountedPage<Meetup> second = meetupService.find(Meetup.builder().event(" EVENTO ").build(), null, null, firstPage, CountStrategy.CACHED, true);
+
+        assertThat(first.getTotalElements()).isEqualTo(5);
+        assertThat(first.isTotalExact()).isTrue();
+        assertThat(second.getTotalElements()).isEqualTo(5);
+        assertThat(second.isTotalExact()).isFalse();
+        Mockito.verify(meetupRepository, Mockito.times(1)).count(Mockito.<Specification<Meetup>>any());
+
+        Mockito.when(meetupRepository.save(Mockito.any(Meetup.class))).thenReturn(createMeetup());
+        meetupService.save(createMeetup());
+        meetupService.find(filter, null, null, firstPage, CountStrategy.CACHED, true);
+
+        Mockito.verify(meetupRepository, Mockito.times(2)).count(Mockito.<Specification<Meetup>>any());
+    }
+
+    @Test
+    @DisplayName("Should never count meetups with the estimated strategy")
+    public void findEstimatedCount() {
+        PageRequest secondPage = PageRequest.of(1, 1);
+        Mockito.when(meetupRepository.findSlice(Mockito.eq(Meetup.class), Mockito.<Specification<Meetup>>any(), Mockito.eq(secondPage)))
+                .thenReturn(new SliceImpl<>(List.of(createMeetup()), secondPage, true));
+
+        CountedPage<Meetup> result = meetupService.find(Meetup.builder().build(), null, null, secondPage, CountStrategy.ESTIMATED, true);
+
+        assertThat(result.getTotalElements()).isEqualTo(3);
+        assertThat(result.isTotalExact()).isFalse();
+        assertThat(result.hasNext()).isTrue();
+        Mockito.verify(meetupRepository, Mockito.never()).count(Mockito.<Specification<Meetup>>any());
+    }
+
+    @Test
+    @DisplayName("Should report the cached total for a page past the end with the estimated strategy")
+    public void findEstimatedPastTheEnd() {
+        PageRequest firstPage = PageRequest.of(0, 1);
+        PageRequest pastTheEnd = PageRequest.of(10, 1);
+        Mockito.when(meetupRepository.findSlice(Mockito.eq(Meetup.class), Mockito.<Specification<Meetup>>any(), Mockito.eq(firstPage)))
+                .thenReturn(new SliceImpl<>(List.of(createMeetup()), firstPage, true));
+        Mockito.when(meetupRepository.findSlice(Mockito.eq(Meetup.class), Mockito.<Specification<Meetup>>any(), Mockito.eq(pastTheEnd)))
+                .thenReturn(new SliceImpl<>(Collections.emptyList(), pastTheEnd, false));
+        Mockito.when(meetupRepository.count(Mockito.<Specification<Meetup>>any())).thenReturn(5L);
+
+        CountedPage<Meetup> unknown = meetupService.find(Meetup.builder().build(), null, null, pastTheEnd, CountStrategy.ESTIMATED, true);
+        meetupService.find(Meetup.builder().build(), null, null, firstPage, CountStrategy.CACHED, true);
+        CountedPage<Meetup> cached = meetupService.find(Meetup.builder().build(), null, null, pastTheEnd, CountStrategy.ESTIMATED, true);
+
+        assertThat(unknown.isTotalExact()).isFalse();
+        assertThat(cached.getTotalElements()).isEqualTo(5);
+        assertThat(cached.isTotalExact()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should not reuse a count that was running while a meetup was saved")
+    public void findCountRacingSave() {
+        PageRequest firstPage = PageRequest.of(0, 1);
+        Mockito.when(meetupRepository.findSlice(Mockito.eq(Meetup.class), Mockito.<Specification<Meetup>>any(), Mockito.eq(firstPage)))
+                .thenReturn(new SliceImpl<>(List.of(createMeetup()), firstPage, true));
+        Mockito.when(meetupRepository.save(Mockito.any(Meetup.class))).thenReturn(createMeetup());
+        Mockito.when(meetupRepository.count(Mockito.<Specification<Meetup>>any()))
+                .thenAnswer(invocation -> {
+                    meetupService.save(createMeetup());
+                    return 5L;
+                })
+                .thenReturn(6L);
+
+        meetupService.find(Meetup.builder().build(), null, null, firstPage, CountStrategy.CACHED, true);
+        CountedPage<Meetup> second = meetupService.find(Meetup.builder().build(), null, null, firstPage, CountStrategy.CACHED, true);
+
+        assertThat(second.getTotalElements()).isEqualTo(6);
+        assertThat(second.isTotalExact()).isTrue();
+        Mockito.verify(meetupRepository, Mockito.times(2)).count(Mockito.<Specification<Meetup>>any());
+    }
+
+    @Test
+    @DisplayName("Should narrow the event filter through the search index once it is loaded")
+    public void findThroughSearchIndex() {
+        Mockito.when(meetupRepository.findEventsAfter(Mockito.eq(0), Mockito.any(Pageable.class)))
+                .thenReturn(List.of(new Object[]{1, "Java Meetup"}, new Object[]{2, "Kotlin Night"}));
+        searchIndex.rebuild();
+        PageRequest page = PageRequest.of(0, 10);
+        Page<Meetup> found = new PageImpl<>(List.of(createMeetup()), page, 1);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Specification<Meetup>> specification = ArgumentCaptor.forClass(Specification.class);
+        Mockito.when(meetupRepository.findAll(specification.capture(), Mockito.eq(page))).thenReturn(found);
+
+        Page<Meetup> result = meetupService.find(Meetup.builder().event("JAVA").build(), page);
+
+        assertThat(result).isSameAs(found);
+        @SuppressWarnings("unchecked")
+        Root<Meetup> root = Mockito.mock(Root.class, Mockito.RETURNS_DEEP_STUBS);
+        CriteriaBuilder builder = Mockito.mock(CriteriaBuilder.class, Mockito.RETURNS_DEEP_STUBS);
+        specification.getValue().toPredicate(root, Mockito.mock(CriteriaQuery.class), builder);
+        Mockito.verify(root.get("id")).in(Set.of(1));
+        Mockito.verify(builder).like(Mockito.any(), Mockito.eq("%java%"), Mockito.anyChar());
+    }
+
+    @Test
+    @DisplayName("Should suggest events from the database while the search index is loading")
+    public void suggestBeforeIndexIsLoaded() {
+        Meetup meetup = createMeetup();
+        Mockito.when(meetupRepository.findByEventStartingWithIgnoreCaseOrderByEventAscIdAsc("eve", PageRequest.of(0, 5)))
+                .thenReturn(List.of(meetup));
+
+        List<Meetup> result = meetupService.suggest("eve", 5);
+
+        assertThat(result).containsExactly(meetup);
+    }
+
+    @Test
+    @DisplayName("Should keep the search index in step with saves and deletes")
+    public void searchIndexFollowsWrites() {
+        Mockito.when(meetupRepository.findEventsAfter(Mockito.eq(0), Mockito.any(Pageable.class)))
+                .thenReturn(Collections.emptyList());
+        searchIndex.rebuild();
+        Meetup meetup = createMeetupWithoutRegistrations();
+        Mockito.when(meetupRepository.save(meetup)).thenReturn(meetup);
+        Mockito.when(meetupRepository.findById(meetup.getId())).thenReturn(Optional.of(meetup));
+
+        meetupService.save(meetup);
+        assertThat(searchIndex.search(meetup.getEvent())).contains(Set.of(meetup.getId()));
+
+        meetupService.delete(meetup.getId());
+        assertThat(searchIndex.search(meetup.getEvent())).contains(Collections.emptySet());
+    }
+
     @Test
     @DisplayName("Should get Meetup by Id")
     public void getMeetupById() {
@@ -190,6 +375,133 @@ public class MeetupServiceTest {
         Mockito.verify(meetupRepository, Mockito.times(0)).delete(meetup);
     }
 
+    @Test
+    @DisplayName("Should subscribe a registration to every meetup of a track")
+    public void subscribeTrack() {
+        Meetup first = Meetup.builder().id(1).event("Trilha 1").meetupDate("01/01/2022").build();
+        Meetup second = Meetup.builder().id(2).event("Trilha 2").meetupDate("02/01/2022").build();
+
+        Mockito.when(meetupRepository.findAllForUpdate(Mockito.anyCollection())).thenReturn(List.of(first, second));
+
+        List<Meetup> meetups = meetupService.subscribeTrack(101, List.of(2, 1));
+
+        assertThat(meetups).containsExactly(first, second);
+        Mockito.verify(meetupRepository).findAllForUpdate(Mockito.argThat(ids -> List.copyOf(ids).equals(List.of(1, 2))));
+        Mockito.verify(membershipService).joinTrack(101, List.of(first, second));
+    }
+
+    @Test
+    @DisplayName("Should not subscribe a track with two meetups on the same date")
+    public void notSubscribeTrackSameDate() {
+        Meetup first = Meetup.builder().id(1).event("Trilha 1").meetupDate("01/01/2022").build();
+        Meetup second = Meetup.builder().id(2).event("Trilha 2").meetupDate("01/01/2022").build();
+
+        Mockito.when(meetupRepository.findAllForUpdate(Mockito.anyCollection())).thenReturn(List.of(first, second));
+
+        Throwable exception = Assertions.catchThrowable(() -> meetupService.subscribeTrack(101, List.of(1, 2)));
+
+        assertThat(exception)
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("A trilha tem mais de uma Meetup no dia 01/01/2022");
+        Mockito.verify(membershipService, Mockito.never()).joinTrack(Mockito.anyInt(), Mockito.anyList());
+    }
+
+    @Test
+    @DisplayName("Should subscribe a track with two legacy meetups whose dates cannot be parsed")
+    public void subscribeTrackLegacyDates() {
+        Meetup first = Meetup.builder().id(1).event("Trilha 1").meetupDate("dez/2021").build();
+        Meetup second = Meetup.builder().id(2).event("Trilha 2").meetupDate("a definir").build();
+
+        Mockito.when(meetupRepository.findAllForUpdate(Mockito.anyCollection())).thenReturn(List.of(first, second));
+
+        List<Meetup> meetups = meetupService.subscribeTrack(101, List.of(1, 2));
+
+        assertThat(meetups).containsExactly(first, second);
+        Mockito.verify(membershipService).joinTrack(101, List.of(first, second));
+    }
+
+    @Test
+    @DisplayName("Should not subscribe a track with two legacy meetups on the same date text")
+    public void notSubscribeTrackLegacySameDate() {
+        Meetup first = Meetup.builder().id(1).event("Trilha 1").meetupDate("dez/2021").build();
+        Meetup second = Meetup.builder().id(2).event("Trilha 2").meetupDate("dez/2021").build();
+
+        Mockito.when(meetupRepository.findAllForUpdate(Mockito.anyCollection())).thenReturn(List.of(first, second));
+
+        Throwable exception = Assertions.catchThrowable(() -> meetupService.subscribeTrack(101, List.of(1, 2)));
+
+        assertThat(exception)
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("A trilha tem mais de uma Meetup no dia dez/2021");
+        Mockito.verify(membershipService, Mockito.never()).joinTrack(Mockito.anyInt(), Mockito.anyList());
+    }
+
+    @Test
+    @DisplayName("Should see the same day in different date formats when subscribing a track")
+    public void notSubscribeTrackSameDayOtherFormat() {
+        Meetup first = Meetup.builder().id(1).event("Trilha 1").meetupDate("2021-10-10").build();
+        Meetup second = Meetup.builder().id(2).event("Trilha 2").meetupDate("10/10/2021").build();
+
+        Mockito.when(meetupRepository.findAllForUpdate(Mockito.anyCollection())).thenReturn(List.of(first, second));
+
+        Throwable exception = Assertions.catchThrowable(() -> meetupService.subscribeTrack(101, List.of(1, 2)));
+
+        assertThat(exception)
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("A trilha tem mais de uma Meetup no dia 10/10/2021");
+    }
+
+    @Test
+    @DisplayName("Should not subscribe a track with an unknown meetup")
+    public void notSubscribeTrackMissingMeetup() {
+        Meetup first = Meetup.builder().id(1).event("Trilha 1").meetupDate("01/01/2022").build();
+
+        Mockito.when(meetupRepository.findAllForUpdate(Mockito.anyCollection())).thenReturn(List.of(first));
+
+        Throwable exception = Assertions.catchThrowable(() -> meetupService.subscribeTrack(101, List.of(1, 2)));
+
+        assertThat(exception)
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Meetup not found!");
+        Mockito.verify(membershipService, Mockito.never()).joinTrack(Mockito.anyInt(), Mockito.anyList());
+    }
+
+    @Test
+    @DisplayName("Should not subscribe a track with a null meetup id")
+    public void notSubscribeTrackNullMeetupId() {
+        Throwable exception = Assertions.catchThrowable(() -> meetupService.subscribeTrack(101, Arrays.asList(1, null)));
+
+        assertThat(exception)
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("Informe o id de todas as Meetups da trilha!");
+        Mockito.verify(meetupRepository, Mockito.never()).findAllForUpdate(Mockito.anyCollection());
+    }
+
+
+    @Test
+    @DisplayName("Should page the roster of a meetup ordered by id when no order is given")
+    public void getRegistrationsByMeetup() {
+        Page<RosterEntry> roster = new PageImpl<>(List.of(new RosterEntry(101, "Isis Oliveira", "001")));
+        Mockito.when(meetupRepository.existsById(99)).thenReturn(true);
+        Mockito.when(meetupRepository.findRoster(99, PageRequest.of(0, 10, Sort.by("id")))).thenReturn(roster);
+
+        Page<RosterEntry> result = meetupService.getRegistrationsByMeetup(99, PageRequest.of(0, 10));
+
+        assertThat(result).isSameAs(roster);
+    }
+
+    @Test
+    @DisplayName("Should not list the roster of a meetup that doesn't exist")
+    public void getRegistrationsByMissingMeetup() {
+        Mockito.when(meetupRepository.existsById(99)).thenReturn(false);
+
+        Throwable exception = Assertions.catchThrowable(() -> meetupService.getRegistrationsByMeetup(99, PageRequest.of(0, 10)));
+
+        assertThat(exception)
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Meetup not found!");
+        Mockito.verify(meetupRepository, Mockito.never()).findRoster(Mockito.anyInt(), Mockito.any(Pageable.class));
+    }
 
     private Meetup createMeetup() {
         return Meetup.builder()
@@ -0,0 +1,395 @@
+package com.bootcamp.microservicemeetup.service;
+
+import com.bootcamp.microservicemeetup.exception.BusinessException;
+import com.bootcamp.microservicemeetup.model.entity.Meetup;
+import com.bootcamp.microservicemeetup.model.entity.Registration;
+import com.bootcamp.microservicemeetup.repository.RegistrationRepository;
+import com.bootcamp.microservicemeetup.service.impl.MembershipServiceImpl;
+import com.bootcamp.microservicemeetup.service.impl.SeatReservationServiceImpl;
+import org.assertj.core.api.Assertions;
+import org.assertj.core.api.ThrowableAssert;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class MembershipServiceTest {
+
+    MembershipService membershipService;
+
+    @MockBean
+    RegistrationRepository registrationRepository;
+
+    @BeforeEach
+    public void setUp() {
+        this.membershipService = new MembershipServiceImpl(registrationRepository,
+                new SeatReservationServiceImpl(registrationRepository));
+    }
+
+    @Test
+    @DisplayName("Should join a meetup writing only the membership row")
+    public void join() {
+        Meetup meetup = createMeetup();
+        Registration registration = createRegistration();
+
+        Mockito.when(registrationRepository.existsByIdAndMeetups_Id(101, 99)).thenReturn(false);
+
+        Meetup joined = membershipService.join(meetup, registration);
+
+        assertThat(joined.getRegistrations()).containsExactly(registration);
+        Mockito.verify(registrationRepository, Mockito.times(1)).insertMembership(101, 99);
+        Mockito.verify(registrationRepository, Mockito.never()).save(Mockito.any(Registration.class));
+    }
+
+    @Test
+    @DisplayName("Should throw BusinessException when registration already joined the meetup")
+    public void notJoinTwice() {
+        Meetup meetup = createMeetup();
+        Registration registration = createRegistration();
+
+        Mockito.when(registrationRepository.existsByIdAndMeetups_Id(101, 99)).thenReturn(true);
+
+        Throwable exception = Assertions.catchThrowable(() -> membershipService.join(meetup, registration));
+        assertThat(exception)
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("A Meetup já contém a registration informada!");
+
+        Mockito.verify(registrationRepository, Mockito.never()).insertMembership(Mockito.anyInt(), Mockito.anyInt());
+    }
+
+    @Test
+    @DisplayName("Should throw BusinessException when registration has another meetup at the same date")
+    public void notJoinSameDate() {
+        Meetup meetup = createMeetup();
+        Registration registration = createRegistration();
+
+        Mockito.when(registrationRepository.existsByIdAndMeetups_MeetupDay(101, LocalDate.of(2022, 1, 1))).thenReturn(true);
+
+        Throwable exception = Assertions.catchThrowable(() -> membershipService.join(meetup, registration));
+        assertThat(exception)
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("A Registration já está inscrita em outra meetup no dia 01/01/2022");
+
+        Mockito.verify(registrationRepository, Mockito.never()).insertMembership(Mockito.anyInt(), Mockito.anyInt());
+    }
+
+    @Test
+    @DisplayName("Should throw BusinessException when the meetup is full")
+    public void notJoinFullMeetup() {
+        Meetup meetup = createMeetup();
+        meetup.setCapacity(1);
+        Registration registration = createRegistration();
+
+        Mockito.when(registrationRepository.countByMeetups_Id(99)).thenReturn(1L);
+
+        Throwable exception = Assertions.catchThrowable(() -> membershipService.join(meetup, registration));
+        assertThat(exception)
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("A Meetup está lotada!");
+
+        Mockito.verify(registrationRepository, Mockito.never()).existsByIdAndMeetups_Id(Mockito.anyInt(), Mockito.anyInt());
+        Mockito.verify(registrationRepository, Mockito.never()).insertMembership(Mockito.anyInt(), Mockito.anyInt());
+    }
+
+    @Test
+    @DisplayName("Should give the seat back when the join is refused after the reservation")
+    public void releaseSeatWhenJoinFails() {
+        Meetup meetup = createMeetup();
+        meetup.setCapacity(1);
+        Registration registration = createRegistration();
+
+        Mockito.when(registrationRepository.countByMeetups_Id(99)).thenReturn(0L);
+        Mockito.when(registrationRepository.existsByIdAndMeetups_Id(101, 99)).thenReturn(true, false);
+
+        rolledBack(() -> membershipService.join(meetup, registration));
+        membershipService.join(meetup, registration);
+
+        Mockito.verify(registrationRepository, Mockito.times(1)).insertMembership(101, 99);
+    }
+
+    @Test
+    @DisplayName("Should join many registrations checking them set-wise and inserting once")
+    public void joinAll() {
+        Meetup meetup = createMeetup();
+        meetup.setCapacity(3);
+        List<Integer> ids = List.of(1, 2, 3, 4, 5, 6, 1);
+
+        Mockito.when(registrationRepository.findIdsByIdIn(Mockito.anyCollection())).thenReturn(List.of(1, 2, 3, 4, 5));
+        Mockito.when(registrationRepository.findMemberIds(Mockito.eq(99), Mockito.anyCollection())).thenReturn(List.of(2));
+        Mockito.when(registrationRepository.findIdsWithMeetupOn(Mockito.eq(LocalDate.of(2022, 1, 1)), Mockito.anyCollection())).thenReturn(List.of(2, 3));
+        Mockito.when(registrationRepository.countByMeetups_Id(99)).thenReturn(1L);
+
+        Map<Integer, MembershipOutcome> outcomes = membershipService.joinAll(meetup, ids);
+
+        assertThat(outcomes).containsEntry(1, MembershipOutcome.JOINED)
+                .containsEntry(2, MembershipOutcome.ALREADY_JOINED)
+                .containsEntry(3, MembershipOutcome.DATE_CONFLICT)
+                .containsEntry(4, MembershipOutcome.JOINED)
+                .containsEntry(5, MembershipOutcome.FULL)
+                .containsEntry(6, MembershipOutcome.NOT_FOUND)
+                .hasSize(6);
+        Mockito.verify(registrationRepository, Mockito.times(1)).insertMemberships(99, List.of(1, 4));
+        Mockito.verify(registrationRepository, Mockito.never()).insertMembership(Mockito.anyInt(), Mockito.anyInt());
+    }
+
+    @Test
+    @DisplayName("Should report a row inserted concurrently as already joined and give its seat back")
+    public void joinAllConcurrentDuplicate() {
+        Meetup meetup = createMeetup();
+        meetup.setCapacity(2);
+
+        Mockito.when(registrationRepository.findIdsByIdIn(Mockito.anyCollection())).thenReturn(List.of(1, 4, 7));
+        Mockito.when(registrationRepository.insertMemberships(99, List.of(1, 4)))
+                .thenThrow(new DuplicateKeyException("uk_registrations_meetups"));
+        Mockito.when(registrationRepository.insertMemberships(99, List.of(4)))
+                .thenThrow(new DuplicateKeyException("uk_registrations_meetups"));
+
+        Map<Integer, MembershipOutcome> outcomes = membershipService.joinAll(meetup, List.of(1, 4));
+
+        assertThat(outcomes).containsEntry(1, MembershipOutcome.JOINED)
+                .containsEntry(4, MembershipOutcome.ALREADY_JOINED)
+                .hasSize(2);
+        Mockito.verify(registrationRepository, Mockito.times(1)).insertMemberships(99, List.of(1));
+        assertThat(membershipService.joinAll(meetup, List.of(7))).containsEntry(7, MembershipOutcome.JOINED);
+    }
+
+    @Test
+    @DisplayName("Should join every meetup of a track checking the agenda once and inserting once")
+    public void joinTrack() {
+        Meetup first = createMeetup();
+        Meetup second = Meetup.builder().id(100).event("Evento teste 2").meetupDate("02/01/2022").build();
+
+        Mockito.when(registrationRepository.existsById(101)).thenReturn(true);
+        Mockito.when(registrationRepository.findAgendaConflicts(Mockito.eq(101), Mockito.anyCollection(), Mockito.anyCollection(), Mockito.anyCollection()))
+                .thenReturn(List.of());
+
+        membershipService.joinTrack(101, List.of(first, second));
+
+        Mockito.verify(registrationRepository, Mockito.times(1))
+                .findAgendaConflicts(Mockito.eq(101), Mockito.anyCollection(), Mockito.anyCollection(), Mockito.anyCollection());
+        Mockito.verify(registrationRepository, Mockito.times(1)).insertRegistrationMeetups(101, List.of(99, 100));
+    }
+
+    @Test
+    @DisplayName("Should give back every reserved seat when one meetup of the track is full")
+    public void notJoinTrackWhenOneMeetupIsFull() {
+        Meetup first = createMeetup();
+        first.setCapacity(1);
+        Meetup second = Meetup.builder().id(100).event("Evento teste 2").meetupDate("02/01/2022").capacity(1).build();
+
+        Mockito.when(registrationRepository.existsById(101)).thenReturn(true);
+        Mockito.when(registrationRepository.findAgendaConflicts(Mockito.eq(101), Mockito.anyCollection(), Mockito.anyCollection(), Mockito.anyCollection()))
+                .thenReturn(List.of());
+        Mockito.when(registrationRepository.countByMeetups_Id(99)).thenReturn(0L);
+        Mockito.when(registrationRepository.countByMeetups_Id(100)).thenReturn(1L);
+
+        Throwable exception = rolledBack(() -> membershipService.joinTrack(101, List.of(first, second)));
+        assertThat(exception)
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("A Meetup está lotada!");
+        Mockito.verify(registrationRepository, Mockito.never()).insertRegistrationMeetups(Mockito.anyInt(), Mockito.anyList());
+
+        // a vaga reservada na primeira Meetup voltou
+        membershipService.join(first, createRegistration());
+        Mockito.verify(registrationRepository, Mockito.times(1)).insertMembership(101, 99);
+    }
+
+    @Test
+    @DisplayName("Should throw BusinessException when the registration already has a meetup on a track date")
+    public void notJoinTrackSameDate() {
+        Meetup first = createMeetup();
+        Meetup other = Meetup.builder().id(7).event("Outro evento").meetupDate("01/01/2022").build();
+
+        Mockito.when(registrationRepository.existsById(101)).thenReturn(true);
+        Mockito.when(registrationRepository.findAgendaConflicts(Mockito.eq(101), Mockito.anyCollection(), Mockito.anyCollection(), Mockito.anyCollection()))
+                .thenReturn(List.of(other));
+
+        Throwable exception = Assertions.catchThrowable(() -> membershipService.joinTrack(101, List.of(first)));
+        assertThat(exception)
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("A Registration já está inscrita em outra meetup no dia 01/01/2022");
+        Mockito.verify(registrationRepository, Mockito.never()).insertRegistrationMeetups(Mockito.anyInt(), Mockito.anyList());
+    }
+
+    @Test
+    @DisplayName("Should not join an empty track")
+    public void notJoinEmptyTrack() {
+        Throwable exception = Assertions.catchThrowable(() -> membershipService.joinTrack(101, List.of()));
+
+        assertThat(exception)
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("A trilha precisa de pelo menos uma Meetup!");
+        Mockito.verify(registrationRepository, Mockito.never()).existsById(Mockito.anyInt());
+    }
+
+    @Test
+    @DisplayName("Should not join a track with an unknown registration")
+    public void notJoinTrackMissingRegistration() {
+        Mockito.when(registrationRepository.existsById(101)).thenReturn(false);
+
+        Throwable exception = Assertions.catchThrowable(() -> membershipService.joinTrack(101, List.of(createMeetup())));
+
+        assertThat(exception)
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Registration não encontrada!");
+        Mockito.verify(registrationRepository, Mockito.never()).insertRegistrationMeetups(Mockito.anyInt(), Mockito.anyList());
+    }
+
+    @Test
+    @DisplayName("Should check a legacy meetup whose date cannot be parsed against the same date text")
+    public void joinLegacyMeetup() {
+        Meetup meetup = legacyMeetup(99);
+        Registration registration = createRegistration();
+
+        membershipService.join(meetup, registration);
+        membershipService.joinAll(legacyMeetup(98), List.of(101));
+
+        Mockito.verify(registrationRepository, Mockito.never()).existsByIdAndMeetups_MeetupDay(Mockito.anyInt(), Mockito.any());
+        Mockito.verify(registrationRepository, Mockito.never()).findIdsWithMeetupOn(Mockito.any(), Mockito.anyCollection());
+        Mockito.verify(registrationRepository).existsByIdAndMeetups_MeetupDate(101, "dez/2021");
+        Mockito.verify(registrationRepository).findIdsWithMeetupDate(Mockito.eq("dez/2021"), Mockito.anyCollection());
+        Mockito.verify(registrationRepository, Mockito.times(1)).insertMembership(101, 99);
+    }
+
+    @Test
+    @DisplayName("Should not join a legacy meetup when the registration has another one with the same date text")
+    public void notJoinLegacyMeetupSameDate() {
+        Meetup meetup = legacyMeetup(99);
+        Registration registration = createRegistration();
+
+        Mockito.when(registrationRepository.existsByIdAndMeetups_MeetupDate(101, "dez/2021")).thenReturn(true);
+        Mockito.when(registrationRepository.findIdsByIdIn(Mockito.anyCollection())).thenReturn(List.of(101));
+        Mockito.when(registrationRepository.findIdsWithMeetupDate(Mockito.eq("dez/2021"), Mockito.anyCollection())).thenReturn(List.of(101));
+
+        Throwable exception = Assertions.catchThrowable(() -> membershipService.join(meetup, registration));
+        assertThat(exception)
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("A Registration já está inscrita em outra meetup no dia dez/2021");
+        assertThat(membershipService.joinAll(legacyMeetup(98), List.of(101))).containsEntry(101, MembershipOutcome.DATE_CONFLICT);
+
+        Mockito.verify(registrationRepository, Mockito.never()).insertMembership(Mockito.anyInt(), Mockito.anyInt());
+        Mockito.verify(registrationRepository, Mockito.never()).insertMemberships(Mockito.anyInt(), Mockito.anyList());
+    }
+
+    @Test
+    @DisplayName("Should not join a track with a legacy meetup on the same date text as one in the agenda")
+    public void notJoinTrackLegacySameDate() {
+        Meetup legacy = legacyMeetup(7);
+        Meetup other = Meetup.builder().id(8).event("Outro evento antigo").meetupDate("dez/2021").build();
+
+        Mockito.when(registrationRepository.existsById(101)).thenReturn(true);
+        Mockito.when(registrationRepository.findAgendaConflicts(Mockito.eq(101), Mockito.anyCollection(), Mockito.anyCollection(), Mockito.anyCollection()))
+                .thenReturn(List.of(other));
+
+        Throwable exception = Assertions.catchThrowable(() -> membershipService.joinTrack(101, List.of(legacy)));
+        assertThat(exception)
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("A Registration já está inscrita em outra meetup no dia dez/2021");
+        Mockito.verify(registrationRepository).findAgendaConflicts(101, List.of(7), Collections.singleton(null), Set.of("dez/2021"));
+        Mockito.verify(registrationRepository, Mockito.never()).insertRegistrationMeetups(Mockito.anyInt(), Mockito.anyList());
+    }
+
+    @Test
+    @DisplayName("Should report an already joined legacy meetup of a track instead of failing on its missing date")
+    public void notJoinTrackAlreadyJoinedLegacyMeetup() {
+        Meetup legacy = legacyMeetup(7);
+        Meetup other = Meetup.builder().id(100).event("Evento teste 2").meetupDate("02/01/2022").build();
+
+        Mockito.when(registrationRepository.existsById(101)).thenReturn(true);
+        Mockito.when(registrationRepository.findAgendaConflicts(Mockito.eq(101), Mockito.anyCollection(), Mockito.anyCollection(), Mockito.anyCollection()))
+                .thenReturn(List.of(legacyMeetup(7)));
+
+        Throwable exception = Assertions.catchThrowable(() -> membershipService.joinTrack(101, List.of(other, legacy)));
+        assertThat(exception)
+                .isInstanceOf(BusinessException.class)
+                .hasMessage(MembershipOutcome.ALREADY_JOINED.message(legacy));
+        Mockito.verify(registrationRepository, Mockito.never()).insertRegistrationMeetups(Mockito.anyInt(), Mockito.anyList());
+    }
+
+    @Test
+    @DisplayName("Should leave a meetup deleting only the membership row")
+    public void leave() {
+        Meetup meetup = createMeetup();
+        Registration registration = createRegistration();
+        meetup.getRegistrations().add(registration);
+
+        Meetup left = membershipService.leave(meetup, registration);
+
+        assertThat(left.getRegistrations()).isEmpty();
+        Mockito.verify(registrationRepository, Mockito.times(1)).deleteMembership(101, 99);
+        Mockito.verify(registrationRepository, Mockito.never()).save(Mockito.any(Registration.class));
+    }
+
+    @Test
+    @DisplayName("Should throw IllegalArgumentException when try to join without registration id")
+    public void notJoinNullRegistration() {
+        Meetup meetup = createMeetup();
+        Registration registration = Registration.builder().id(null).build();
+
+        Throwable exception = Assertions.catchThrowable(() -> membershipService.join(meetup, registration));
+        assertThat(exception)
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Registration id cannot be null");
+    }
+
+    /** Executa como se fosse numa transação que termina em rollback, devolvendo o que ela lançou. */
+    private Throwable rolledBack(ThrowableAssert.ThrowingCallable call) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            return Assertions.catchThrowable(call);
+        } finally {
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            TransactionSynchronizationManager.clearSynchronization();
+            TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+    }
+
+    private Meetup createMeetup() {
+        return Meetup.builder()
+                .id(99)
+                .event("Evento teste")
+                .meetupDate("01/01/2022")
+                .registrations(new ArrayList<Registration>())
+                .build();
+    }
+
+    private Meetup legacyMeetup(Integer id) {
+        // gravada antes da validação de formato: o MeetupDayBackfill não consegue tirar o dia dela
+        return Meetup.builder()
+                .id(id)
+                .event("Evento antigo")
+                .meetupDate("dez/2021")
+                .registrations(new ArrayList<Registration>())
+                .build();
+    }
+
+    private Registration createRegistration() {
+        return Registration.builder()
+                .id(101)
+                .name("Isis Oliveira")
+                .dateOfRegistration("01/01/2022")
+                .registration("001")
+                .password("123")
+                .meetups(new ArrayList<Meetup>())
+                .build();
+    }
+}
@@ -0,0 +1,102 @@
+package com.bootcamp.microservicemeetup.service;
+
+import com.bootcamp.microservicemeetup.model.entity.Registration;
+import com.bootcamp.microservicemeetup.repository.RegistrationRepository;
+import com.bootcamp.microservicemeetup.service.impl.RegistrationNameIndexImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class RegistrationNameIndexTest {
+
+    RegistrationNameIndex nameIndex;
+
+    @MockBean
+    RegistrationRepository repository;
+
+    @BeforeEach
+    public void setUp() {
+        this.nameIndex = new RegistrationNameIndexImpl(repository, 5, 2);
+        Mockito.when(repository.findNamesAfter(0, PageRequest.of(0, 2)))
+                .thenReturn(List.of(new Object[]{1, "Ísis Oliveira"}, new Object[]{2, "João da Silva"}));
+        Mockito.when(repository.findNamesAfter(2, PageRequest.of(0, 2)))
+                .thenReturn(List.<Object[]>of(new Object[]{3, "Isabela Oliveira-Souza"}));
+        nameIndex.rebuild();
+    }
+
+    @Test
+    @DisplayName("Should not answer before the index is loaded")
+    public void notReady() {
+        RegistrationNameIndex loading = new RegistrationNameIndexImpl(repository, 5, 2);
+        loading.index(Registration.builder().id(1).name("Ísis Oliveira").build());
+
+        assertThat(loading.search("isis", PageRequest.of(0, 10))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should find names by word prefix ignoring case and accents")
+    public void searchPrefix() {
+        CountedPage<Integer> result = nameIndex.search("ISIS", PageRequest.of(0, 10)).orElseThrow();
+
+        assertThat(result.getContent()).containsExactly(1);
+        assertThat(nameIndex.search("joao", PageRequest.of(0, 10)).orElseThrow().getContent()).containsExactly(2);
+        assertThat(nameIndex.search("sil", PageRequest.of(0, 10)).orElseThrow().getContent()).containsExactly(2);
+    }
+
+    @Test
+    @DisplayName("Should require every word of the text and order by the matched word")
+    public void searchTokens() {
+        assertThat(nameIndex.search("oli is", PageRequest.of(0, 10)).orElseThrow().getContent()).containsExactly(1, 3);
+        assertThat(nameIndex.search("souza oliveira", PageRequest.of(0, 10)).orElseThrow().getContent()).containsExactly(3);
+        assertThat(nameIndex.search("isis souza", PageRequest.of(0, 10)).orElseThrow().getContent()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should page the matches and report an exact total")
+    public void searchPaged() {
+        // "isabela" vem antes de "isis"
+        CountedPage<Integer> result = nameIndex.search("i", PageRequest.of(1, 1)).orElseThrow();
+
+        assertThat(result.getContent()).containsExactly(1);
+        assertThat(result.getTotalElements()).isEqualTo(2);
+        assertThat(result.isTotalExact()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should stop scanning at the limit and report the total as a lower bound")
+    public void searchScanLimit() {
+        for (int id = 10; id < 20; id++) {
+            nameIndex.index(Registration.builder().id(id).name("Maria " + id).build());
+        }
+
+        CountedPage<Integer> result = nameIndex.search("maria", PageRequest.of(0, 2)).orElseThrow();
+
+        assertThat(result.getContent()).hasSize(2);
+        assertThat(result.getTotalElements()).isEqualTo(6);
+        assertThat(result.isTotalExact()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should reindex a renamed registration and forget a removed one")
+    public void updateAndRemove() {
+        nameIndex.index(Registration.builder().id(1).name("Ana Paula").build());
+        nameIndex.remove(2);
+
+        assertThat(nameIndex.search("isis", PageRequest.of(0, 10)).orElseThrow().getContent()).isEmpty();
+        assertThat(nameIndex.search("ana", PageRequest.of(0, 10)).orElseThrow().getContent()).containsExactly(1);
+        assertThat(nameIndex.search("joao", PageRequest.of(0, 10)).orElseThrow().getContent()).isEqualTo(Collections.emptyList());
+    }
+}
@@ -3,6 +3,9 @@ package com.bootcamp.microservicemeetup.service;
 import com.bootcamp.microservicemeetup.exception.BusinessException;
 import com.bootcamp.microservicemeetup.model.entity.Registration;
 import com.bootcamp.microservicemeetup.repository.RegistrationRepository;
+import com.bootcamp.microservicemeetup.security.PrincipalCache;
+import com.bootcamp.microservicemeetup.service.impl.PageCountServiceImpl;
+import com.bootcamp.microservicemeetup.service.impl.RegistrationNameIndexImpl;
 import com.bootcamp.microservicemeetup.service.impl.RegistrationServiceImpl;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -14,14 +17,17 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Bean;
-import org.springframework.data.domain.Example;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.Arrays;
 import java.util.List;
@@ -39,13 +45,23 @@ public class RegistrationServiceTest {
 
     PasswordEncoder passwordEncoder;
 
+    RegistrationNameIndex nameIndex;
+
     @MockBean
     RegistrationRepository repository;
 
+    @MockBean
+    PrincipalCache principalCache;
+
+    @MockBean
+    TokenService tokenService;
+
     @BeforeEach
     public void setUp() {
         this.passwordEncoder = new BCryptPasswordEncoder();
-        this.registrationService = new RegistrationServiceImpl(repository, passwordEncoder);
+        this.nameIndex = new RegistrationNameIndexImpl(repository, 1000, 100);
+        this.registrationService = new RegistrationServiceImpl(repository, passwordEncoder, principalCache,
+                new PageCountServiceImpl(30, 100), nameIndex, tokenService);
     }
 
     @Test
@@ -124,11 +140,13 @@ public class RegistrationServiceTest {
     @DisplayName("Should delete a student")
     public void deleteRegistrationTest() {
 
-        Registration registration = Registration.builder().id(11).build();
+        Registration registration = Registration.builder().id(11).registration("011").build();
 
         assertDoesNotThrow(() -> registrationService.delete(registration));
 
         Mockito.verify(repository, Mockito.times(1)).delete(registration);
+        Mockito.verify(principalCache, Mockito.times(1)).invalidate("011");
+        Mockito.verify(tokenService, Mockito.times(1)).revokeRefreshTokens("011");
     }
 
     @Test
@@ -158,6 +176,23 @@ public class RegistrationServiceTest {
         assertThat(registration.getDateOfRegistration()).isEqualTo(updatedRegistration.getDateOfRegistration());
         assertThat(registration.getRegistration()).isEqualTo(updatedRegistration.getRegistration());
         assertThat(registration.getPassword()).isEqualTo(updatedRegistration.getPassword());
+        Mockito.verify(principalCache, Mockito.times(1)).invalidate("101");
+        Mockito.verify(tokenService, Mockito.times(1)).revokeRefreshTokens("101");
+    }
+
+    @Test
+    @DisplayName("Should revoke the refresh tokens on update even when the password is the same")
+    public void updateRevokesRefreshTokensWithSamePassword() {
+        Registration original = Registration.builder().id(101).registration("101")
+                .password(passwordEncoder.encode("111")).build();
+        Registration updating = Registration.builder().id(101).name("Novo Nome").password("111").build();
+
+        Mockito.when(repository.findById(101)).thenReturn(Optional.of(original));
+        Mockito.when(repository.save(updating)).thenReturn(updating);
+        registrationService.update(updating);
+
+        Mockito.verify(tokenService, Mockito.times(1)).revokeRefreshTokens("101");
+        Mockito.verify(principalCache, Mockito.times(1)).invalidate("101");
     }
 
     @Test
@@ -173,7 +208,7 @@ public class RegistrationServiceTest {
                 PageRequest.of(0,10), 1);
 
         // execucao
-        Mockito.when(repository.findAll(Mockito.any(Example.class), Mockito.any(PageRequest.class)))
+        Mockito.when(repository.findAll(Mockito.<Specification<Registration>>any(), Mockito.any(PageRequest.class)))
                 .thenReturn(page);
 
         Page<Registration> result = registrationService.find(registration, pageRequest);
@@ -185,6 +220,50 @@ public class RegistrationServiceTest {
         assertThat(result.getPageable().getPageSize()).isEqualTo(10);
     }
 
+    @Test
+    @DisplayName("Should take the total from the last page without counting")
+    public void findLastPageWithoutCount() {
+        Registration registration = createValidRegistration();
+        PageRequest lastPage = PageRequest.of(2, 10);
+        Mockito.when(repository.findSlice(Mockito.eq(Registration.class), Mockito.<Specification<Registration>>any(), Mockito.eq(lastPage)))
+                .thenReturn(new SliceImpl<>(Arrays.asList(registration), lastPage, false));
+
+        CountedPage<Registration> result = registrationService.find(registration, lastPage, CountStrategy.CACHED);
+
+        assertThat(result.getTotalElements()).isEqualTo(21);
+        assertThat(result.isTotalExact()).isTrue();
+        Mockito.verify(repository, Mockito.never()).count(Mockito.<Specification<Registration>>any());
+    }
+
+    @Test
+    @DisplayName("Should search by name in index order and keep the index in step with saves")
+    public void searchByName() {
+        nameIndex.rebuild();
+        Registration first = Registration.builder().id(1).name("Ísis Oliveira").registration("001").password("123").build();
+        Registration second = Registration.builder().id(2).name("Isabela Souza").registration("002").password("123").build();
+        Mockito.when(repository.save(Mockito.any(Registration.class))).thenReturn(second, first);
+        registrationService.save(Registration.builder().registration("002").password("123").build());
+        registrationService.save(Registration.builder().registration("001").password("123").build());
+        Mockito.when(repository.findAllById(Mockito.anyIterable())).thenReturn(Arrays.asList(first, second));
+
+        CountedPage<Registration> result = registrationService.searchByName("is", PageRequest.of(0, 10));
+
+        assertThat(result.getContent()).containsExactly(second, first);
+        assertThat(result.getTotalElements()).isEqualTo(2);
+        assertThat(result.isTotalExact()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should answer 503 instead of searching by name in the database while the index is loading")
+    public void searchByNameBeforeIndexIsLoaded() {
+        Throwable exception = Assertions.catchThrowable(() -> registrationService.searchByName("isis", PageRequest.of(0, 10)));
+
+        assertThat(exception).isInstanceOf(ResponseStatusException.class);
+        assertThat(((ResponseStatusException) exception).getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        Mockito.verify(repository, Mockito.never()).findAllById(Mockito.anyIterable());
+        Mockito.verify(repository, Mockito.never()).findSlice(Mockito.eq(Registration.class), Mockito.<Specification<Registration>>any(), Mockito.any(PageRequest.class));
+    }
+
     @Test
     @DisplayName("Should get a Registration model by registration attribute")
     public void getRegistrationByRegistrationAtrb() {
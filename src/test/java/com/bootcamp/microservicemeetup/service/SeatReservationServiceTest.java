@@ -0,0 +1,196 @@
+package com.bootcamp.microservicemeetup.service;
+
+import com.bootcamp.microservicemeetup.model.entity.Meetup;
+import com.bootcamp.microservicemeetup.repository.RegistrationRepository;
+import com.bootcamp.microservicemeetup.service.impl.SeatReservationServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class SeatReservationServiceTest {
+
+    SeatReservationService seatReservationService;
+
+    @MockBean
+    RegistrationRepository registrationRepository;
+
+    @BeforeEach
+    public void setUp() {
+        this.seatReservationService = new SeatReservationServiceImpl(registrationRepository);
+    }
+
+    @Test
+    @DisplayName("Should never overbook a meetup under 1000 parallel subscribers")
+    public void noOverbooking() throws Exception {
+        Meetup meetup = createMeetup(100);
+        Mockito.when(registrationRepository.countByMeetups_Id(99)).thenReturn(0L);
+
+        ExecutorService executor = Executors.newFixedThreadPool(64);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> attempts = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            attempts.add(executor.submit(() -> {
+                start.await();
+                return seatReservationService.tryReserve(meetup);
+            }));
+        }
+        start.countDown();
+
+        int accepted = 0;
+        for (Future<Boolean> attempt : attempts) {
+            if (attempt.get(10, TimeUnit.SECONDS)) {
+                accepted++;
+            }
+        }
+        executor.shutdown();
+
+        assertThat(accepted).isEqualTo(100);
+        Mockito.verify(registrationRepository, Mockito.times(1)).countByMeetups_Id(99);
+    }
+
+    @Test
+    @DisplayName("Should start the counter from the registrations already persisted")
+    public void seedFromJoinTable() {
+        Meetup meetup = createMeetup(10);
+        Mockito.when(registrationRepository.countByMeetups_Id(99)).thenReturn(9L);
+
+        assertThat(seatReservationService.tryReserve(meetup)).isTrue();
+        assertThat(seatReservationService.tryReserve(meetup)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should accept a new reservation after a seat is released")
+    public void releaseSeat() {
+        Meetup meetup = createMeetup(1);
+        Mockito.when(registrationRepository.countByMeetups_Id(99)).thenReturn(1L);
+
+        assertThat(seatReservationService.tryReserve(meetup)).isFalse();
+        seatReservationService.release(meetup.getId());
+        assertThat(seatReservationService.tryReserve(meetup)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should give a reserved seat back only when the transaction does not commit")
+    public void returnSeatOnRollback() {
+        Meetup meetup = createMeetup(1);
+        Mockito.when(registrationRepository.countByMeetups_Id(99)).thenReturn(0L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        assertThat(seatReservationService.tryReserve(meetup)).isTrue();
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        assertThat(seatReservationService.tryReserve(meetup)).isTrue();
+
+        TransactionSynchronizationManager.initSynchronization();
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        assertThat(seatReservationService.tryReserve(meetup)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should free a released seat only after the delete commits")
+    public void releaseAfterCommit() {
+        Meetup meetup = createMeetup(1);
+        Mockito.when(registrationRepository.countByMeetups_Id(99)).thenReturn(1L);
+        assertThat(seatReservationService.tryReserve(meetup)).isFalse();
+
+        TransactionSynchronizationManager.initSynchronization();
+        seatReservationService.release(meetup.getId());
+        assertThat(seatReservationService.tryReserve(meetup)).isFalse();
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        assertThat(seatReservationService.tryReserve(meetup)).isFalse();
+
+        TransactionSynchronizationManager.initSynchronization();
+        seatReservationService.release(meetup.getId());
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        assertThat(seatReservationService.tryReserve(meetup)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should reset the counter from the persisted rows keeping uncommitted reservations")
+    public void reconcile() {
+        Meetup meetup = createMeetup(3);
+        Mockito.when(registrationRepository.countByMeetups_Id(99)).thenReturn(0L);
+        assertThat(seatReservationService.tryReserve(meetup)).isTrue();
+        TransactionSynchronizationManager.initSynchronization();
+        assertThat(seatReservationService.tryReserve(meetup)).isTrue();
+
+        // a primeira reserva nunca foi gravada; o banco tem só uma linha de outra instância
+        Mockito.when(registrationRepository.countByMeetups_Id(99)).thenReturn(1L);
+        seatReservationService.reconcile();
+
+        assertThat(seatReservationService.tryReserve(meetup)).isTrue();
+        assertThat(seatReservationService.tryReserve(meetup)).isFalse();
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+    }
+
+    @Test
+    @DisplayName("Should keep a reservation made while the reconcile count is running")
+    public void reconcileDuringReservation() {
+        Meetup meetup = createMeetup(2);
+        Mockito.when(registrationRepository.countByMeetups_Id(99)).thenReturn(0L);
+        assertThat(seatReservationService.tryReserve(meetup)).isTrue();
+
+        // a contagem vê só a primeira linha; a segunda reserva entra enquanto ela roda
+        Mockito.when(registrationRepository.countByMeetups_Id(99)).thenAnswer(invocation -> {
+            TransactionSynchronizationManager.initSynchronization();
+            assertThat(seatReservationService.tryReserve(meetup)).isTrue();
+            return 1L;
+        });
+        seatReservationService.reconcile();
+
+        assertThat(seatReservationService.tryReserve(meetup)).isFalse();
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        assertThat(seatReservationService.tryReserve(meetup)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should not limit meetups without capacity")
+    public void unlimitedMeetup() {
+        Meetup meetup = createMeetup(null);
+
+        assertThat(seatReservationService.tryReserve(meetup)).isTrue();
+        Mockito.verify(registrationRepository, Mockito.never()).countByMeetups_Id(Mockito.anyInt());
+    }
+
+    @AfterEach
+    public void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, status);
+    }
+
+    private Meetup createMeetup(Integer capacity) {
+        return Meetup.builder()
+                .id(99)
+                .event("Evento teste")
+                .meetupDate("01/01/2022")
+                .capacity(capacity)
+                .build();
+    }
+}
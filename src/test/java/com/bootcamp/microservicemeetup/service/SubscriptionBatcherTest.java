@@ -0,0 +1,207 @@
+package com.bootcamp.microservicemeetup.service;
+
+import com.bootcamp.microservicemeetup.model.entity.Meetup;
+import com.bootcamp.microservicemeetup.repository.MeetupRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class SubscriptionBatcherTest {
+
+    SubscriptionBatcher subscriptionBatcher;
+
+    @MockBean
+    MembershipService membershipService;
+
+    @MockBean
+    MeetupRepository meetupRepository;
+
+    @BeforeEach
+    public void setUp() {
+        this.subscriptionBatcher = new SubscriptionBatcher(membershipService, meetupRepository, true, 100, 50, 2, 5000);
+        Mockito.when(meetupRepository.findById(99)).thenReturn(Optional.of(createMeetup()));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        subscriptionBatcher.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should group concurrent subscriptions of a meetup and give each caller its own outcome")
+    public void groupSubscriptions() throws Exception {
+        Meetup meetup = createMeetup();
+        Mockito.when(membershipService.joinAll(Mockito.eq(meetup), Mockito.anyCollection()))
+                .thenAnswer(invocation -> {
+                    Map<Integer, MembershipOutcome> outcomes = new LinkedHashMap<>();
+                    for (Integer id : invocation.<Collection<Integer>>getArgument(1)) {
+                        outcomes.put(id, id % 2 == 0 ? MembershipOutcome.JOINED : MembershipOutcome.DATE_CONFLICT);
+                    }
+                    return outcomes;
+                });
+
+        ExecutorService callers = Executors.newFixedThreadPool(20);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<MembershipOutcome>> results = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            int registrationId = i;
+            results.add(callers.submit(() -> {
+                start.await();
+                return subscriptionBatcher.submit(meetup.getId(), registrationId);
+            }));
+        }
+        start.countDown();
+
+        for (int i = 0; i < 20; i++) {
+            MembershipOutcome expected = i % 2 == 0 ? MembershipOutcome.JOINED : MembershipOutcome.DATE_CONFLICT;
+            assertThat(results.get(i).get(10, TimeUnit.SECONDS)).isEqualTo(expected);
+        }
+        callers.shutdown();
+
+        Mockito.verify(membershipService, Mockito.atMost(19)).joinAll(Mockito.eq(meetup), Mockito.anyCollection());
+    }
+
+    @Test
+    @DisplayName("Should propagate a failed batch to its callers")
+    public void failedBatch() {
+        Meetup meetup = createMeetup();
+        Mockito.when(membershipService.joinAll(Mockito.eq(meetup), Mockito.anyCollection()))
+                .thenThrow(new IllegalStateException("banco indisponível"));
+
+        Throwable exception = Assertions.catchThrowable(() -> subscriptionBatcher.submit(meetup.getId(), 101));
+
+        assertThat(exception)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("banco indisponível");
+    }
+
+    @Test
+    @DisplayName("Should retry a failed batch row by row so only the bad subscription fails")
+    public void failedRowInBatch() throws Exception {
+        Meetup meetup = createMeetup();
+        Mockito.when(membershipService.joinAll(Mockito.eq(meetup), Mockito.anyCollection()))
+                .thenAnswer(invocation -> {
+                    Collection<Integer> ids = invocation.getArgument(1);
+                    if (ids.contains(13)) {
+                        throw new IllegalStateException("linha inválida");
+                    }
+                    Map<Integer, MembershipOutcome> outcomes = new LinkedHashMap<>();
+                    ids.forEach(id -> outcomes.put(id, MembershipOutcome.JOINED));
+                    return outcomes;
+                });
+
+        ExecutorService callers = Executors.newFixedThreadPool(3);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<MembershipOutcome>> results = new ArrayList<>();
+        for (int registrationId : List.of(12, 13, 14)) {
+            results.add(callers.submit(() -> {
+                start.await();
+                return subscriptionBatcher.submit(meetup.getId(), registrationId);
+            }));
+        }
+        start.countDown();
+
+        assertThat(results.get(0).get(10, TimeUnit.SECONDS)).isEqualTo(MembershipOutcome.JOINED);
+        assertThat(results.get(2).get(10, TimeUnit.SECONDS)).isEqualTo(MembershipOutcome.JOINED);
+        Throwable exception = Assertions.catchThrowable(() -> results.get(1).get(10, TimeUnit.SECONDS));
+        assertThat(exception).hasRootCauseInstanceOf(IllegalStateException.class);
+        callers.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should reload the meetup for every batch instead of keeping the first caller's copy")
+    public void reloadMeetupPerBatch() {
+        Meetup before = createMeetup();
+        Meetup after = createMeetup();
+        after.setCapacity(1);
+        Mockito.when(meetupRepository.findById(99)).thenReturn(Optional.of(before)).thenReturn(Optional.of(after));
+        Mockito.when(membershipService.joinAll(Mockito.any(Meetup.class), Mockito.anyCollection()))
+                .thenAnswer(invocation -> Map.of(101, MembershipOutcome.JOINED));
+
+        subscriptionBatcher.submit(99, 101);
+        subscriptionBatcher.submit(99, 101);
+
+        Mockito.verify(membershipService).joinAll(Mockito.same(before), Mockito.anyCollection());
+        Mockito.verify(membershipService).joinAll(Mockito.same(after), Mockito.anyCollection());
+    }
+
+    @Test
+    @DisplayName("Should fail the callers of a meetup that no longer exists")
+    public void missingMeetup() {
+        Mockito.when(meetupRepository.findById(98)).thenReturn(Optional.empty());
+
+        Throwable exception = Assertions.catchThrowable(() -> subscriptionBatcher.submit(98, 101));
+
+        assertThat(exception)
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Meetup not found!");
+        Mockito.verify(membershipService, Mockito.never()).joinAll(Mockito.any(Meetup.class), Mockito.anyCollection());
+    }
+
+    @Test
+    @DisplayName("Should fail right away with 503 instead of hanging once the writers are shut down")
+    public void rejectedAfterShutdown() {
+        subscriptionBatcher.shutdown();
+
+        Throwable exception = Assertions.catchThrowable(() -> subscriptionBatcher.submit(99, 101));
+
+        assertThat(exception).isInstanceOf(ResponseStatusException.class);
+        assertThat(((ResponseStatusException) exception).getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        Mockito.verify(membershipService, Mockito.never()).joinAll(Mockito.any(Meetup.class), Mockito.anyCollection());
+
+        Throwable again = Assertions.catchThrowable(() -> subscriptionBatcher.submit(99, 102));
+        assertThat(again).isInstanceOf(ResponseStatusException.class);
+    }
+
+    @Test
+    @DisplayName("Should give up with 503 when the batch takes longer than the timeout")
+    public void timeout() throws Exception {
+        subscriptionBatcher.shutdown();
+        subscriptionBatcher = new SubscriptionBatcher(membershipService, meetupRepository, true, 100, 0, 1, 100);
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.when(membershipService.joinAll(Mockito.any(Meetup.class), Mockito.anyCollection()))
+                .thenAnswer(invocation -> {
+                    release.await(10, TimeUnit.SECONDS);
+                    return Map.of(101, MembershipOutcome.JOINED);
+                });
+
+        Throwable exception = Assertions.catchThrowable(() -> subscriptionBatcher.submit(99, 101));
+        release.countDown();
+
+        assertThat(exception).isInstanceOf(ResponseStatusException.class);
+        assertThat(((ResponseStatusException) exception).getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    private Meetup createMeetup() {
+        return Meetup.builder()
+                .id(99)
+                .event("Evento teste")
+                .meetupDate("01/01/2022")
+                .build();
+    }
+}
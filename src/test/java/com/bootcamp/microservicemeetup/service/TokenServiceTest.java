@@ -0,0 +1,178 @@
+package com.bootcamp.microservicemeetup.service;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.bootcamp.microservicemeetup.controller.dto.TokenDTO;
+import com.bootcamp.microservicemeetup.model.entity.RefreshToken;
+import com.bootcamp.microservicemeetup.model.entity.RevokedToken;
+import com.bootcamp.microservicemeetup.repository.RefreshTokenRepository;
+import com.bootcamp.microservicemeetup.repository.RevokedTokenRepository;
+import com.bootcamp.microservicemeetup.security.AuthenticatedPrincipal;
+import com.bootcamp.microservicemeetup.security.JWTAutenticationFilter;
+import com.bootcamp.microservicemeetup.security.PrincipalCache;
+import com.bootcamp.microservicemeetup.security.TokenRevocationList;
+import com.bootcamp.microservicemeetup.service.impl.TokenServiceImpl;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class TokenServiceTest {
+
+    TokenService tokenService;
+
+    @MockBean
+    RefreshTokenRepository repository;
+
+    @MockBean
+    RevokedTokenRepository revokedTokenRepository;
+
+    @MockBean
+    PrincipalCache principalCache;
+
+    TokenRevocationList revocationList;
+
+    @BeforeEach
+    public void setUp() {
+        this.revocationList = new TokenRevocationList();
+        this.tokenService = new TokenServiceImpl(repository, revokedTokenRepository, revocationList, principalCache, 3600, 86400);
+    }
+
+    @Test
+    @DisplayName("Should issue an access token and store only the hash of the refresh token")
+    public void issue() {
+        TokenDTO token = tokenService.issue("001", List.of("ROLE_USER"));
+
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+        Mockito.verify(repository).save(captor.capture());
+        assertThat(captor.getValue().getTokenHash()).hasSize(64).isNotEqualTo(token.getRefreshToken());
+        assertThat(captor.getValue().getRegistration()).isEqualTo("001");
+
+        DecodedJWT jwt = JWT.require(JWTAutenticationFilter.ALGORITHM).build().verify(token.getAccessToken());
+        assertThat(captor.getValue().getAccessJti()).isEqualTo(jwt.getId());
+        assertThat(jwt.getSubject()).isEqualTo("001");
+        assertThat(jwt.getClaim("roles").asList(String.class)).containsExactly("ROLE_USER");
+        assertThat(token.getExpiresIn()).isEqualTo(3600);
+        assertThat(jwt.getId()).isNotBlank();
+    }
+
+    @Test
+    @DisplayName("Should store the revoked jti and reject it in memory")
+    public void revoke() {
+        TokenDTO token = tokenService.issue("001", List.of("ROLE_USER"));
+        String jti = JWT.decode(token.getAccessToken()).getId();
+
+        tokenService.revoke(token.getAccessToken());
+
+        ArgumentCaptor<RevokedToken> captor = ArgumentCaptor.forClass(RevokedToken.class);
+        Mockito.verify(revokedTokenRepository).save(captor.capture());
+        assertThat(captor.getValue().getJti()).isEqualTo(jti);
+        assertThat(revocationList.isRevoked(jti)).isTrue();
+        Mockito.verify(repository).deleteByAccessJti(jti);
+    }
+
+    @Test
+    @DisplayName("Should seed the revocation list with the tokens not expired yet")
+    public void loadRevokedTokens() {
+        Mockito.when(revokedTokenRepository.findByExpiresAtGreaterThan(Mockito.anyLong())).thenReturn(List.of(
+                RevokedToken.builder().jti("jti-1").expiresAt(System.currentTimeMillis() + 60000).build()));
+
+        ((TokenServiceImpl) tokenService).loadRevokedTokens();
+
+        Mockito.verify(revokedTokenRepository).deleteExpired(Mockito.anyLong());
+        assertThat(revocationList.isRevoked("jti-1")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should rotate the refresh token keeping its absolute expiry and the current roles")
+    public void refresh() {
+        long expiresAt = System.currentTimeMillis() + 60000;
+        RefreshToken stored = RefreshToken.builder().id(1L).registration("001")
+                .expiresAt(expiresAt).build();
+
+        Mockito.when(repository.findByTokenHash(Mockito.anyString())).thenReturn(Optional.of(stored));
+        Mockito.when(repository.deleteAndCount(1L)).thenReturn(1);
+        Mockito.when(principalCache.get("001"))
+                .thenReturn(Optional.of(new AuthenticatedPrincipal("001", "hash", List.of("ROLE_ADMIN"))));
+
+        TokenDTO token = tokenService.refresh("antigo");
+
+        assertThat(token.getRefreshToken()).isNotEqualTo("antigo");
+        Mockito.verify(repository).deleteAndCount(1L);
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+        Mockito.verify(repository).save(captor.capture());
+        assertThat(captor.getValue().getExpiresAt()).isEqualTo(expiresAt);
+        assertThat(JWT.decode(token.getAccessToken()).getClaim("roles").asList(String.class)).containsExactly("ROLE_ADMIN");
+    }
+
+    @Test
+    @DisplayName("Should not renew the refresh token of a deleted registration")
+    public void notRefreshDeletedRegistration() {
+        RefreshToken stored = RefreshToken.builder().id(1L).registration("001")
+                .expiresAt(System.currentTimeMillis() + 60000).build();
+
+        Mockito.when(repository.findByTokenHash(Mockito.anyString())).thenReturn(Optional.of(stored));
+        Mockito.when(principalCache.get("001")).thenReturn(Optional.empty());
+
+        Throwable exception = Assertions.catchThrowable(() -> tokenService.refresh("antigo"));
+
+        assertThat(exception).isInstanceOf(ResponseStatusException.class).hasMessageContaining("Refresh token inválido!");
+        Mockito.verify(repository, Mockito.never()).deleteAndCount(Mockito.anyLong());
+        Mockito.verify(repository, Mockito.never()).save(Mockito.any(RefreshToken.class));
+    }
+
+    @Test
+    @DisplayName("Should not renew with a refresh token already rotated by another request")
+    public void notRefreshTwice() {
+        RefreshToken stored = RefreshToken.builder().id(1L).registration("001")
+                .expiresAt(System.currentTimeMillis() + 60000).build();
+
+        Mockito.when(repository.findByTokenHash(Mockito.anyString())).thenReturn(Optional.of(stored));
+        Mockito.when(repository.deleteAndCount(1L)).thenReturn(0);
+        Mockito.when(principalCache.get("001"))
+                .thenReturn(Optional.of(new AuthenticatedPrincipal("001", "hash", List.of())));
+
+        Throwable exception = Assertions.catchThrowable(() -> tokenService.refresh("antigo"));
+
+        assertThat(exception).isInstanceOf(ResponseStatusException.class).hasMessageContaining("Refresh token inválido!");
+        Mockito.verify(repository, Mockito.never()).save(Mockito.any(RefreshToken.class));
+    }
+
+    @Test
+    @DisplayName("Should not renew with an expired refresh token")
+    public void notRefreshExpired() {
+        RefreshToken stored = RefreshToken.builder().id(1L).registration("001")
+                .expiresAt(System.currentTimeMillis() - 1).build();
+
+        Mockito.when(repository.findByTokenHash(Mockito.anyString())).thenReturn(Optional.of(stored));
+        Mockito.when(repository.deleteAndCount(1L)).thenReturn(1);
+
+        Throwable exception = Assertions.catchThrowable(() -> tokenService.refresh("antigo"));
+
+        assertThat(exception).isInstanceOf(ResponseStatusException.class);
+        Mockito.verify(repository, Mockito.never()).deleteAndCount(Mockito.anyLong());
+        Mockito.verify(repository, Mockito.never()).save(Mockito.any(RefreshToken.class));
+    }
+
+    @Test
+    @DisplayName("Should purge the expired refresh tokens")
+    public void purgeExpiredRefreshTokens() {
+        ((TokenServiceImpl) tokenService).purgeExpiredRefreshTokens();
+
+        Mockito.verify(repository).deleteExpired(Mockito.anyLong());
+    }
+}